@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Builds the benchmark jar and runs it with the GC profiler (allocation rate
+# per operation), saving JSON results named after the current commit so runs
+# can be compared across commits. Extra arguments go to JMH, e.g.
+#   ./run-benchmarks.sh Jwt            # only the JWT suites
+#   ./run-benchmarks.sh -p strength=12 BCrypt
+set -euo pipefail
+
+cd "$(dirname "$0")"
+(cd .. && mvn -B -q -DskipTests package)
+
+mkdir -p results
+commit="$(git rev-parse --short HEAD)"
+if ! git diff --quiet HEAD -- ../mynotesapp/src; then
+    commit="${commit}-dirty"
+fi
+
+java -jar target/benchmarks.jar -prof gc -rf json -rff "results/${commit}.json" "$@"
@@ -0,0 +1,98 @@
+package com.yankee.mynotesapp.bench;
+
+import com.yankee.mynotesapp.cardano.CoinSelection;
+import com.yankee.mynotesapp.cardano.CoinSelectionStrategy;
+import com.yankee.mynotesapp.cardano.LargestFirstSelection;
+import com.yankee.mynotesapp.cardano.ProtocolParams;
+import com.yankee.mynotesapp.cardano.RandomImproveSelection;
+import com.yankee.mynotesapp.cardano.UnsignedTx;
+import com.yankee.mynotesapp.cardano.UnsignedTxBuilder;
+import com.yankee.mynotesapp.cardano.Utxo;
+import com.yankee.mynotesapp.cardano.UtxoAmount;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coin selection on large wallets, alone and as part of a full unsigned
+ * transaction build. The build benchmark also reports the fee and input
+ * count it ended up with (secondary metrics), so a change that speeds up
+ * selection but produces bigger transactions shows up in the same result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class CoinSelectionBenchmark {
+
+    // CIP-19 test vector (testnet base address); serializes like a real wallet's
+    private static final String ADDRESS =
+            "addr_test1qz2fxv2umyhttkxyxp8x0dlpdt3k6cwng5pxj3jhsydzer3jcu5d8ps7zex2k2xt3uqxgjqnnj83ws8lhrn648jjxtwq2ytjqp";
+    private static final long TARGET = 500_000_000L;
+
+    @Param({ "1000", "10000", "50000" })
+    public int utxoCount;
+
+    @Param({ LargestFirstSelection.NAME, RandomImproveSelection.NAME })
+    public String strategy;
+
+    private List<Utxo> utxos;
+    private CoinSelectionStrategy selection;
+    private UnsignedTxBuilder builder;
+    private ProtocolParams params;
+
+    @Setup
+    public void setup() {
+        // Fixed seed: every run and every commit selects over the same wallet
+        SplittableRandom random = new SplittableRandom(2024);
+        utxos = new ArrayList<>(utxoCount);
+        for (int i = 0; i < utxoCount; i++) {
+            // Mostly small outputs (1-5 ADA) with the occasional large one
+            long lovelace = random.nextInt(20) == 0
+                    ? 50_000_000L + random.nextLong(950_000_000L)
+                    : 1_000_000L + random.nextLong(4_000_000L);
+            Utxo utxo = new Utxo();
+            utxo.setAddress(ADDRESS);
+            utxo.setTxHash(String.format("%064x", i));
+            utxo.setOutputIndex(i % 4);
+            utxo.setAmount(List.of(new UtxoAmount(UtxoAmount.LOVELACE, BigInteger.valueOf(lovelace))));
+            utxos.add(utxo);
+        }
+        selection = LargestFirstSelection.NAME.equals(strategy)
+                ? new LargestFirstSelection() : new RandomImproveSelection(7);
+        builder = new UnsignedTxBuilder(strategy, 150, 7200);
+
+        params = new ProtocolParams();
+        params.setMinFeeA(44);
+        params.setMinFeeB(155_381);
+        params.setMaxTxSize(16_384);
+        params.setCoinsPerUtxoSize(4_310);
+    }
+
+    @Benchmark
+    public CoinSelection select() {
+        return selection.select(utxos, TARGET, 150);
+    }
+
+    @Benchmark
+    public UnsignedTx build(BuildResult result) {
+        UnsignedTx tx = builder.build(utxos, ADDRESS, ADDRESS, BigInteger.valueOf(TARGET), strategy, params, 1_000_000);
+        result.feeLovelace = tx.getFee().longValue();
+        result.inputs = tx.getInputCount();
+        return tx;
+    }
+
+    // Set, not accumulated: JMH reports the last transaction's fee and input count per iteration
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class BuildResult {
+        public long feeLovelace;
+        public long inputs;
+    }
+}
@@ -0,0 +1,64 @@
+package com.yankee.mynotesapp.bench;
+
+import com.yankee.mynotesapp.config.JwtAuthFilter;
+import com.yankee.mynotesapp.config.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full pass of JwtAuthFilter as a protected request sees it: header
+ * parsing, (cached) verification, building the principal and the security
+ * context. The filter is wired by hand, the way Spring would inject it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class JwtAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> { };
+
+    private JwtAuthFilter filter;
+    private String validHeader;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = new JwtUtil(JwtBenchmark.SECRET, 3_600_000, 10_000);
+        validHeader = "Bearer " + jwtUtil.generateToken(JwtBenchmark.user());
+
+        filter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.invokeMethod(filter, "registerMeters", new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public Authentication validToken() throws Exception {
+        return pass(validHeader);
+    }
+
+    @Benchmark
+    public Authentication invalidToken() throws Exception {
+        return pass("Bearer not.a.jwt");
+    }
+
+    private Authentication pass(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/notes");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.yankee.mynotesapp.bench;
+
+import com.yankee.mynotesapp.config.AppUserDetails;
+import com.yankee.mynotesapp.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and check. validateTokenCached is the steady state for a client
+ * reusing its token; verifySignature always parses and checks HS512, which is
+ * what the first request with a new token (or a cache miss) pays.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class JwtBenchmark {
+
+    // jwt.secret from application.properties (Base64, 512+ bits for HS512)
+    static final String SECRET = "NTExYml0X3NlY3JldF9rZXlmb3Jqd3R2YWxpZGF0aW9uYW5kc2lnbmluZ19ub3Rlc19hcHBfa2V5XzMxMjQ1Ngo=";
+
+    private JwtUtil jwtUtil;
+    private AppUserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET, 3_600_000, 10_000);
+        user = user();
+        token = jwtUtil.generateToken(user);
+        jwtUtil.validateToken(token, user);
+    }
+
+    static AppUserDetails user() {
+        return new AppUserDetails(42L, "bench-user", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public Boolean validateTokenCached() {
+        return jwtUtil.validateToken(token, user);
+    }
+
+    @Benchmark
+    public String verifySignature() {
+        return jwtUtil.extractClaim(token, Claims::getSubject);
+    }
+}
@@ -0,0 +1,99 @@
+package com.yankee.mynotesapp.bench;
+
+import com.yankee.mynotesapp.note.NoteContentCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage vs CPU for note content at rest: encode/decode time with
+ * compression off, at level 1 (the default) and at level 6, across note
+ * sizes. The stored and UTF-8 sizes are reported as secondary metrics, so
+ * their ratio is the space saved. Notes under notes.content.compression.min-bytes
+ * (1024) are stored raw whatever the level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class NoteContentCodecBenchmark {
+
+    private static final String[] WORDS = {
+            "meeting", "roadmap", "budget", "hiring", "wallet", "address", "release", "review",
+            "the", "a", "of", "and", "to", "for", "with", "on", "next", "week", "team", "plan",
+            "customer", "deadline", "draft", "notes", "ADA", "transaction", "fee", "follow-up" };
+
+    // Characters of editor HTML
+    @Param({ "512", "4096", "65536" })
+    public int size;
+
+    @Param({ "off", "1", "6" })
+    public String compression;
+
+    private NoteContentCodec codec;
+    private String content;
+    private byte[] stored;
+    private int utf8Bytes;
+
+    @Setup
+    public void setup() {
+        boolean enabled = !"off".equals(compression);
+        codec = new NoteContentCodec(enabled, 1024, enabled ? Integer.parseInt(compression) : 1);
+
+        // Fixed seed: every run encodes the same text. Word soup in paragraphs compresses
+        // more like real notes than one repeated sentence would.
+        SplittableRandom random = new SplittableRandom(2024);
+        StringBuilder html = new StringBuilder(size + 64);
+        while (html.length() < size) {
+            html.append("<p>");
+            int words = 8 + random.nextInt(30);
+            for (int i = 0; i < words; i++) {
+                html.append(WORDS[random.nextInt(WORDS.length)]).append(i + 1 < words ? " " : ".");
+            }
+            if (random.nextInt(4) == 0) {
+                html.append(" <strong>").append(random.nextInt(100_000)).append("</strong>");
+            }
+            html.append("</p>\n");
+        }
+        content = html.substring(0, size);
+        stored = codec.encode(content);
+        utf8Bytes = content.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public byte[] encode(Sizes sizes) {
+        byte[] encoded = codec.encode(content);
+        sizes.storedBytes = encoded.length;
+        sizes.utf8Bytes = utf8Bytes;
+        return encoded;
+    }
+
+    @Benchmark
+    public String decode() {
+        return codec.decode(stored);
+    }
+
+    // The path GET /api/notes/{id}/content takes
+    @Benchmark
+    public long decodeStream() throws IOException {
+        try (InputStream in = codec.decodeStream(new ByteArrayInputStream(stored))) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    // Set, not accumulated: JMH reports the sizes per iteration
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Sizes {
+        public long storedBytes;
+        public long utf8Bytes;
+    }
+}
@@ -0,0 +1,53 @@
+package com.yankee.mynotesapp.bench;
+
+import com.yankee.mynotesapp.note.Note;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of a notes listing response at different page sizes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class NoteSerializationBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int notes;
+
+    private ObjectMapper mapper;
+    private List<Note> list;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder().build();
+        list = new ArrayList<>(notes);
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        String paragraph = "<p>Meeting notes: discussed the <strong>roadmap</strong>, budget and hiring plan.</p>";
+        for (int i = 0; i < notes; i++) {
+            Note note = new Note();
+            note.setId((long) i + 1);
+            note.setTitle("Note " + i);
+            // ~500 characters of editor HTML
+            note.setContent(paragraph.repeat(6));
+            note.setContentLength(note.getContent().length());
+            note.setVersion(3L);
+            note.setChangeSeq((long) i);
+            note.setCreatedAt(now);
+            note.setUpdatedAt(now.plusSeconds(i));
+            list.add(note);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return mapper.writeValueAsBytes(list);
+    }
+}
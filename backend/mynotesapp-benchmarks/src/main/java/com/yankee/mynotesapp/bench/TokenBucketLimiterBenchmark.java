@@ -0,0 +1,57 @@
+package com.yankee.mynotesapp.bench;
+
+import com.yankee.mynotesapp.ratelimit.TokenBucketLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenBucketLimiter under contention from 8 threads (-t to change). With
+ * keys=1 every thread CASes the same bucket; larger key counts spread the
+ * threads out, and more keys than maxKeys keeps the sweeper busy. The limit
+ * is far above the offered load, so every call takes the granting CAS path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+@Threads(8)
+public class TokenBucketLimiterBenchmark {
+
+    @Param({ "1", "1000", "50000" })
+    public int keys;
+
+    @Param({ "10000" })
+    public int maxKeys;
+
+    private TokenBucketLimiter limiter;
+    private String[] keyNames;
+
+    @Setup
+    public void setup() {
+        // One token back every nanosecond: never refuses
+        limiter = new TokenBucketLimiter(1_000_000, 1, maxKeys);
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            // Client IPs, like AuthRateLimiter's per-IP buckets
+            keyNames[i] = "10." + (i >> 16 & 0xff) + "." + (i >> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire(KeyPicker picker) {
+        return limiter.tryAcquire(keyNames[picker.next(keys)]);
+    }
+
+    @State(Scope.Thread)
+    public static class KeyPicker {
+        private final SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+
+        int next(int bound) {
+            return bound == 1 ? 0 : random.nextInt(bound);
+        }
+    }
+}
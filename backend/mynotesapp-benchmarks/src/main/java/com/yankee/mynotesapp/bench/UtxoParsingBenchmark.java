@@ -0,0 +1,84 @@
+package com.yankee.mynotesapp.bench;
+
+import com.yankee.mynotesapp.cardano.AssetTotals;
+import com.yankee.mynotesapp.cardano.Utxo;
+import com.yankee.mynotesapp.cardano.UtxoPageParser;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing one Blockfrost /addresses/{address}/utxos page the way
+ * CardanoService does (streaming, element by element), against binding the
+ * whole array at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class UtxoParsingBenchmark {
+
+    // Blockfrost's page size
+    @Param({ "100" })
+    public int utxos;
+
+    private ObjectMapper mapper;
+    private UtxoPageParser parser;
+    private byte[] page;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder().build();
+        parser = new UtxoPageParser(mapper);
+        page = page(utxos).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Utxo> streamToList() {
+        List<Utxo> out = new ArrayList<>(utxos);
+        parser.parse(new ByteArrayInputStream(page), out::add);
+        return out;
+    }
+
+    @Benchmark
+    public AssetTotals streamToTotals() {
+        AssetTotals totals = new AssetTotals();
+        parser.parse(new ByteArrayInputStream(page), totals);
+        return totals;
+    }
+
+    @Benchmark
+    public List<Utxo> bindWholeArray() {
+        return mapper.readValue(page, new TypeReference<List<Utxo>>() { });
+    }
+
+    // Same shape as Blockfrost: every tenth output also holds a native token
+    static String page(int count) {
+        String token = "ab".repeat(28) + "746f6b656e";
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"address\":\"addr_test1qz2fxv2umyhttkxyxp8x0dlpdt3k6cwng5pxj3jhsydzer3jcu5d8ps7zex2k2xt3uqxgjqnnj83ws8lhrn648jjxtwq2ytjqp\"")
+                    .append(",\"tx_hash\":\"").append(String.format("%064x", i))
+                    .append("\",\"output_index\":").append(i % 3)
+                    .append(",\"amount\":[{\"unit\":\"lovelace\",\"quantity\":\"").append(1_000_000 + i * 1_234L).append("\"}");
+            if (i % 10 == 0) {
+                json.append(",{\"unit\":\"").append(token).append("\",\"quantity\":\"5\"}");
+            }
+            json.append("],\"block\":\"").append(String.format("%064x", i / 20))
+                    .append("\",\"data_hash\":null,\"inline_datum\":null,\"reference_script_hash\":null}");
+        }
+        return json.append(']').toString();
+    }
+}
@@ -5,10 +5,12 @@ package com.yankee.mynotesapp;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean; // ADD THIS IMPORT
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry; // ADD THIS IMPORT
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer; // ADD THIS IMPORT
 
 @SpringBootApplication
+@EnableScheduling // tombstone compaction
 public class MyNotesAppApplication {
 
 	public static void main(String[] args) {
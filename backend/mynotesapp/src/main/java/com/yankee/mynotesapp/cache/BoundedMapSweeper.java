@@ -0,0 +1,71 @@
+package com.yankee.mynotesapp.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Keeps a ConcurrentMap near a size bound without locking readers or writers.
+ * A sweep first removes the entries its owner says are dead (expired, idle);
+ * if the map is still over the bound it drops an arbitrary extra slice of
+ * about 1/16 of maxSize, so the next sweep is far away. Only one thread sweeps
+ * at a time; a thread that finds a sweep running just carries on.
+ */
+public final class BoundedMapSweeper<K, V> {
+
+    private final ConcurrentMap<K, V> map;
+    private final int maxSize;
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+    private final LongAdder evictions = new LongAdder();
+
+    public BoundedMapSweeper(ConcurrentMap<K, V> map, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.map = map;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param dead     entries that can go first without losing anything
+     * @param reserved room to leave below maxSize, e.g. 1 for an insert that follows
+     */
+    public void sweep(Predicate<V> dead, int reserved) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            map.values().removeIf(value -> {
+                boolean drop = dead.test(value);
+                if (drop) {
+                    evictions.increment();
+                }
+                return drop;
+            });
+
+            int overflow = map.size() - (maxSize - reserved);
+            if (overflow > 0) {
+                int toDrop = overflow + Math.max(1, maxSize / 16);
+                Iterator<V> it = map.values().iterator();
+                while (toDrop > 0 && it.hasNext()) {
+                    it.next();
+                    it.remove();
+                    evictions.increment();
+                    toDrop--;
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
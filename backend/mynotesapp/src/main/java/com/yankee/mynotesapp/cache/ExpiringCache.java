@@ -0,0 +1,103 @@
+package com.yankee.mynotesapp.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Small bounded in-process cache where every entry carries its own expiry time.
+ *
+ * Reads are lock-free (ConcurrentHashMap). When the cache grows past maxSize,
+ * a BoundedMapSweeper removes expired entries and, if that is not enough, an
+ * arbitrary slice of the remaining ones. Hit / miss / eviction counters are
+ * kept so callers can expose them.
+ */
+public class ExpiringCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final BoundedMapSweeper<K, Entry<V>> sweeper;
+    private final LongSupplier clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ExpiringCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    public ExpiringCache(int maxSize, LongSupplier clock) {
+        this.sweeper = new BoundedMapSweeper<>(entries, maxSize);
+        this.clock = clock;
+    }
+
+    // Returns the cached value, or null if absent or expired
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt <= clock.getAsLong()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value;
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis <= clock.getAsLong()) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, expiresAtMillis));
+        if (entries.size() > sweeper.getMaxSize()) {
+            long now = clock.getAsLong();
+            sweeper.sweep(e -> e.expiresAt <= now, 0);
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    // Drops every entry whose key and value match; meant for rare, targeted invalidation
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        entries.entrySet().removeIf(e -> predicate.test(e.getKey(), e.getValue().value));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return sweeper.getMaxSize();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return sweeper.getEvictions();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.yankee.mynotesapp.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache in front of a slow loader (an upstream HTTP call).
+ *
+ * Values are fresh for ttlMillis and then served stale for up to staleMillis
+ * more while a background refresh runs. Concurrent loads of the same key are
+ * coalesced: one caller runs the loader, the others wait for its result.
+ * A caller with a bounded wait hands the load to the refresh executor instead
+ * of running it, so nothing tied to its own thread (a deadline, an interrupt)
+ * can fail the load for the others. Failed loads are not cached. A load that overlaps an invalidation doesn't
+ * store its (possibly outdated) result.
+ */
+public class RefreshingCache<K, V> {
+
+    private final ExpiringCache<K, Stamped<V>> entries;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Function<K, V> loader;
+    private final Executor refreshExecutor;
+    private final long ttlMillis;
+    private final long staleMillis;
+    private final LongSupplier clock;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public RefreshingCache(int maxSize, long ttlMillis, long staleMillis, Function<K, V> loader,
+            Executor refreshExecutor) {
+        this(maxSize, ttlMillis, staleMillis, loader, refreshExecutor, System::currentTimeMillis);
+    }
+
+    public RefreshingCache(int maxSize, long ttlMillis, long staleMillis, Function<K, V> loader,
+            Executor refreshExecutor, LongSupplier clock) {
+        this.entries = new ExpiringCache<>(maxSize, clock);
+        this.loader = loader;
+        this.refreshExecutor = refreshExecutor;
+        this.ttlMillis = ttlMillis;
+        this.staleMillis = Math.max(0, staleMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * @throws RuntimeException whatever the loader threw (an Error is rethrown as is), when there
+     *         was nothing cached to serve
+     */
+    public V get(K key) {
+        return get(key, Long.MAX_VALUE);
+    }
+
+    /**
+     * Like get(key), but waits at most maxWaitNanos for the load, which runs
+     * on the refresh executor and carries on for other callers after this one
+     * gives up.
+     *
+     * @throws CompletionException with a TimeoutException as its cause when that wait runs out
+     */
+    public V get(K key, long maxWaitNanos) {
+        Stamped<V> entry = entries.get(key);
+        if (entry != null) {
+            if (clock.getAsLong() < entry.freshUntil) {
+                hits.increment();
+            } else {
+                staleHits.increment();
+                refreshInBackground(key);
+            }
+            return entry.value;
+        }
+
+        misses.increment();
+        try {
+            return maxWaitNanos == Long.MAX_VALUE ? load(key, null).join()
+                    : load(key, refreshExecutor).copy().orTimeout(maxWaitNanos, TimeUnit.NANOSECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        entries.invalidate(key);
+    }
+
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        invalidations.incrementAndGet();
+        entries.invalidateIf((key, stamped) -> predicate.test(key, stamped.value));
+    }
+
+    // A busy executor fails the refresh quietly: the stale value is served and the next read tries again
+    private void refreshInBackground(K key) {
+        if (!inFlight.containsKey(key)) {
+            load(key, refreshExecutor);
+        }
+    }
+
+    /**
+     * Starts the loader, on the calling thread when runOn is null, unless
+     * another caller is already loading this key.
+     */
+    private CompletableFuture<V> load(K key, Executor runOn) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        if (runOn == null) {
+            run(key, flight);
+            return flight;
+        }
+        try {
+            runOn.execute(() -> run(key, flight));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+        }
+        return flight;
+    }
+
+    private void run(K key, CompletableFuture<V> flight) {
+        long generation = invalidations.get();
+        try {
+            loads.increment();
+            V value = loader.apply(key);
+            if (generation == invalidations.get()) {
+                long now = clock.getAsLong();
+                entries.put(key, new Stamped<>(value, now + ttlMillis), now + ttlMillis + staleMillis);
+            }
+            flight.complete(value);
+        } catch (RuntimeException e) {
+            loadFailures.increment();
+            flight.completeExceptionally(e);
+        } catch (Throwable e) {
+            // An Error too must reach the waiters, or they would hang; the loading caller still gets it thrown
+            loadFailures.increment();
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Upstream calls actually made
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    // Misses that waited on another caller's load instead of calling upstream
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    // Fresh and stale hits over all reads
+    public double getHitRatio() {
+        long served = hits.sum() + staleHits.sum();
+        long total = served + misses.sum();
+        return total == 0 ? 0.0 : (double) served / total;
+    }
+
+    private static final class Stamped<V> {
+        private final V value;
+        private final long freshUntil;
+
+        private Stamped(V value, long freshUntil) {
+            this.value = value;
+            this.freshUntil = freshUntil;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.yankee.mynotesapp.cardano;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Running per-unit totals over UTxOs, fed one at a time, so a balance can be
+ * computed while pages stream in without keeping the UTxOs themselves.
+ * Not thread-safe; use one per fetch.
+ */
+public class AssetTotals implements Consumer<Utxo> {
+
+    private final Map<String, BigInteger> totals = new TreeMap<>();
+    private long utxoCount;
+
+    @Override
+    public void accept(Utxo utxo) {
+        utxoCount++;
+        if (utxo.getAmount() == null) {
+            return;
+        }
+        for (UtxoAmount amount : utxo.getAmount()) {
+            if (amount.getUnit() != null && amount.getQuantity() != null) {
+                totals.merge(amount.getUnit(), amount.getQuantity(), BigInteger::add);
+            }
+        }
+    }
+
+    public AssetTotals addAll(Iterable<Utxo> utxos) {
+        utxos.forEach(this);
+        return this;
+    }
+
+    public void merge(AssetTotals other) {
+        utxoCount += other.utxoCount;
+        other.totals.forEach((unit, quantity) -> totals.merge(unit, quantity, BigInteger::add));
+    }
+
+    public BigInteger getLovelace() {
+        return totals.getOrDefault(UtxoAmount.LOVELACE, BigInteger.ZERO);
+    }
+
+    // unit -> quantity, lovelace included
+    public Map<String, BigInteger> getTotals() {
+        return Collections.unmodifiableMap(totals);
+    }
+
+    public long getUtxoCount() {
+        return utxoCount;
+    }
+
+    // Quantities as strings, like Blockfrost's, so JavaScript clients don't lose precision
+    public Map<String, String> asStrings() {
+        Map<String, String> out = new TreeMap<>();
+        totals.forEach((unit, quantity) -> out.put(unit, quantity.toString()));
+        return out;
+    }
+}
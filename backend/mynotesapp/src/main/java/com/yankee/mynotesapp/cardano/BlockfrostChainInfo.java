@@ -0,0 +1,67 @@
+package com.yankee.mynotesapp.cardano;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.yankee.mynotesapp.cache.RefreshingCache;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Protocol parameters and the current slot, which every transaction build
+ * needs. Parameters only change at epoch boundaries and the tip is only used
+ * for the TTL, so both are cached and refreshed in the background.
+ */
+@Component
+public class BlockfrostChainInfo {
+
+    private static final String KEY = "latest";
+
+    private final RestTemplate restTemplate;
+    private final String apiKey;
+    private final RefreshingCache<String, ProtocolParams> params;
+    private final RefreshingCache<String, Long> tipSlot;
+
+    public BlockfrostChainInfo(@Qualifier("blockfrostRestTemplate") RestTemplate restTemplate,
+            @Value("${blockfrost.api.key}") String apiKey,
+            @Qualifier("applicationTaskExecutor") Executor refreshExecutor,
+            @Value("${cardano.protocol-params.ttl-seconds:600}") long paramsTtlSeconds,
+            @Value("${cardano.tip.ttl-seconds:10}") long tipTtlSeconds) {
+        this.restTemplate = restTemplate;
+        this.apiKey = apiKey;
+        this.params = new RefreshingCache<>(1, paramsTtlSeconds * 1000, paramsTtlSeconds * 6000,
+                key -> get("/epochs/latest/parameters", ProtocolParams.class), refreshExecutor);
+        this.tipSlot = new RefreshingCache<>(1, tipTtlSeconds * 1000, tipTtlSeconds * 6000,
+                key -> get("/blocks/latest", LatestBlock.class).getSlot(), refreshExecutor);
+    }
+
+    public ProtocolParams protocolParams() {
+        return params.get(KEY);
+    }
+
+    public long currentSlot() {
+        return tipSlot.get(KEY);
+    }
+
+    private <T> T get(String uri, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("project_id", apiKey);
+        T body = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), type).getBody();
+        if (body == null) {
+            throw new IllegalStateException("Empty response from " + uri);
+        }
+        return body;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class LatestBlock {
+        private Long slot;
+    }
+}
@@ -0,0 +1,74 @@
+package com.yankee.mynotesapp.cardano;
+
+import com.yankee.mynotesapp.resilience.UpstreamUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every Blockfrost call as blockfrost.requests{endpoint, outcome, status}.
+ * Paths are reduced to their route ("/addresses/{address}/utxos") so addresses
+ * and hashes never become tag values. Registered outside the resilience
+ * interceptor, so calls refused by the breaker or bulkhead show up as
+ * outcome=REJECTED.
+ */
+public class BlockfrostMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry registry;
+
+    public BlockfrostMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String endpoint = request.getMethod().name() + " " + route(request.getURI().getPath());
+        long start = System.nanoTime();
+        String outcome = "IO_ERROR";
+        String status = "NONE";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            int code = response.getStatusCode().value();
+            status = String.valueOf(code);
+            outcome = code >= 500 ? "SERVER_ERROR" : code >= 400 ? "CLIENT_ERROR" : "SUCCESS";
+            return response;
+        } catch (UpstreamUnavailableException e) {
+            outcome = "REJECTED";
+            throw e;
+        } finally {
+            Timer.builder("blockfrost.requests")
+                    .description("Blockfrost API calls")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // The API path after the /api/v0 prefix, with per-address / per-tx segments replaced
+    static String route(String path) {
+        int api = path.indexOf("/api/v0");
+        String route = api >= 0 ? path.substring(api + "/api/v0".length()) : path;
+        if (route.startsWith("/addresses/")) {
+            int next = route.indexOf('/', "/addresses/".length());
+            return "/addresses/{address}" + (next >= 0 ? route.substring(next) : "");
+        }
+        if (route.startsWith("/txs/")) {
+            int next = route.indexOf('/', "/txs/".length());
+            return "/txs/{hash}" + (next >= 0 ? route.substring(next) : "");
+        }
+        return switch (route) {
+            case "/tx/submit", "/epochs/latest/parameters", "/blocks/latest" -> route;
+            default -> "other";
+        };
+    }
+}
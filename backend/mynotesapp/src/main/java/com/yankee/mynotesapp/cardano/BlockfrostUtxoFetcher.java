@@ -0,0 +1,84 @@
+package com.yankee.mynotesapp.cardano;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Walks every page of /addresses/{address}/utxos (Blockfrost caps a page at
+ * 100 entries) and streams the UTxOs to a consumer a page at a time. Callers
+ * decide whether to collect, aggregate or forward them.
+ *
+ * Each page is parsed into a buffer and only handed over once its response is
+ * closed, so a slow consumer (a client reading an NDJSON stream) never holds
+ * a pooled connection or a Blockfrost bulkhead slot.
+ */
+@Component
+public class BlockfrostUtxoFetcher {
+
+    // Blockfrost's maximum page size
+    static final int PAGE_SIZE = 100;
+
+    private final RestTemplate restTemplate;
+    private final String apiKey;
+    private final UtxoPageParser pageParser;
+    private final int maxPages;
+
+    public BlockfrostUtxoFetcher(@Qualifier("blockfrostRestTemplate") RestTemplate restTemplate,
+            @Value("${blockfrost.api.key}") String apiKey,
+            ObjectMapper objectMapper,
+            @Value("${cardano.utxo.max-pages:1000}") int maxPages) {
+        this.restTemplate = restTemplate;
+        this.apiKey = apiKey;
+        this.pageParser = new UtxoPageParser(objectMapper);
+        this.maxPages = maxPages;
+    }
+
+    /**
+     * @return number of UTxOs passed to the consumer
+     * @throws IllegalStateException if the address has more than maxPages pages
+     */
+    public long forEach(String address, Consumer<Utxo> consumer) {
+        long total = 0;
+        for (int page = 1; ; page++) {
+            if (page > maxPages) {
+                throw new IllegalStateException("Address has more than " + (maxPages * PAGE_SIZE) + " UTxOs");
+            }
+            int count;
+            try {
+                count = fetchPage(address, page, consumer);
+            } catch (HttpClientErrorException.NotFound e) {
+                // Blockfrost answers 404 for an address that has never been used: no UTxOs
+                return total;
+            }
+            total += count;
+            // A short page is the last one
+            if (count < PAGE_SIZE) {
+                return total;
+            }
+        }
+    }
+
+    private int fetchPage(String address, int page, Consumer<Utxo> consumer) {
+        List<Utxo> utxos = new ArrayList<>(PAGE_SIZE);
+        restTemplate.execute("/addresses/{address}/utxos?page={page}&count={count}&order=asc",
+                HttpMethod.GET,
+                request -> {
+                    request.getHeaders().set("project_id", apiKey);
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                },
+                response -> pageParser.parse(response.getBody(), utxos::add),
+                address, page, PAGE_SIZE);
+        utxos.forEach(consumer);
+        return utxos.size();
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,6 +17,10 @@ public class CardanoTxRequest {
     // as senderAddress)
     private String recipientAddress;
 
-    // The amount the user wants to send, specified in ADA (e.g., 1.5)
-    private double amountAda;
+    // The amount the user wants to send, specified in ADA (e.g., 1.5).
+    // BigDecimal so it converts to lovelace exactly; at most 6 decimal places.
+    private BigDecimal amountAda;
+
+    // Optional coin selection strategy ("largest-first" / "random-improve"); null for the default
+    private String coinSelection;
 }
\ No newline at end of file
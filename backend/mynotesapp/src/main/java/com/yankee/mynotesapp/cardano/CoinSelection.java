@@ -0,0 +1,12 @@
+package com.yankee.mynotesapp.cardano;
+
+import lombok.Value;
+
+import java.util.List;
+
+// Inputs picked by a CoinSelectionStrategy and the lovelace they hold together
+@Value
+public class CoinSelection {
+    List<Utxo> inputs;
+    long lovelace;
+}
@@ -0,0 +1,19 @@
+package com.yankee.mynotesapp.cardano;
+
+import java.util.List;
+
+/**
+ * Picks inputs covering a lovelace target. Implementations must be
+ * thread-safe (one instance serves every request) and should stay roughly
+ * linear in the number of UTxOs, since wallets can hold tens of thousands.
+ */
+public interface CoinSelectionStrategy {
+
+    String name();
+
+    /**
+     * @throws InsufficientFundsException if the UTxOs can't cover the target
+     *         with at most maxInputs inputs
+     */
+    CoinSelection select(List<Utxo> utxos, long targetLovelace, int maxInputs);
+}
@@ -0,0 +1,8 @@
+package com.yankee.mynotesapp.cardano;
+
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,79 @@
+package com.yankee.mynotesapp.cardano;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Takes the biggest UTxOs until the target is covered: fewest inputs, so the
+ * smallest transactions and fees, at the cost of leaving dust behind.
+ *
+ * Uses a max-heap over primitive lovelace values instead of sorting, so the
+ * cost is O(n) to build plus O(k log n) for the k inputs taken.
+ */
+public class LargestFirstSelection implements CoinSelectionStrategy {
+
+    public static final String NAME = "largest-first";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public CoinSelection select(List<Utxo> utxos, long targetLovelace, int maxInputs) {
+        int n = utxos.size();
+        long[] values = new long[n];
+        int[] heap = new int[n];
+        long available = 0;
+        for (int i = 0; i < n; i++) {
+            values[i] = utxos.get(i).lovelace();
+            heap[i] = i;
+            available += values[i];
+        }
+        if (available < targetLovelace) {
+            throw new InsufficientFundsException(
+                    "Need " + targetLovelace + " lovelace but the address holds " + available);
+        }
+
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(heap, values, i, n);
+        }
+
+        List<Utxo> selected = new ArrayList<>();
+        long total = 0;
+        int size = n;
+        while (total < targetLovelace) {
+            if (selected.size() == maxInputs) {
+                throw new InsufficientFundsException(
+                        "Covering " + targetLovelace + " lovelace needs more than " + maxInputs + " inputs");
+            }
+            int top = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, values, 0, size);
+            selected.add(utxos.get(top));
+            total += values[top];
+        }
+        return new CoinSelection(selected, total);
+    }
+
+    private static void siftDown(int[] heap, long[] values, int i, int size) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left;
+            int right = left + 1;
+            if (right < size && values[heap[right]] > values[heap[left]]) {
+                largest = right;
+            }
+            if (values[heap[i]] >= values[heap[largest]]) {
+                return;
+            }
+            int tmp = heap[i];
+            heap[i] = heap[largest];
+            heap[largest] = tmp;
+            i = largest;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.yankee.mynotesapp.cardano;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+// The parts of Blockfrost's /epochs/latest/parameters the transaction builder needs
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProtocolParams {
+
+    // fee = minFeeA * txSizeBytes + minFeeB
+    @JsonProperty("min_fee_a")
+    private long minFeeA;
+
+    @JsonProperty("min_fee_b")
+    private long minFeeB;
+
+    @JsonProperty("max_tx_size")
+    private int maxTxSize;
+
+    // Babbage min-ADA: (160 + serialized output size) * coinsPerUtxoSize
+    @JsonProperty("coins_per_utxo_size")
+    private long coinsPerUtxoSize;
+}
@@ -0,0 +1,99 @@
+package com.yankee.mynotesapp.cardano;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * CIP-2 random-improve: draw random UTxOs until the target is covered, then
+ * keep drawing while each draw moves the total closer to twice the target
+ * (never above three times). Change outputs end up about the size of the
+ * payment, which keeps the UTxO set healthy over time.
+ *
+ * Draws are a partial Fisher-Yates shuffle of an index array, so only the
+ * drawn positions are touched. If the random phase would need more than
+ * maxInputs inputs, selection falls back to largest-first.
+ */
+public class RandomImproveSelection implements CoinSelectionStrategy {
+
+    public static final String NAME = "random-improve";
+
+    private final Supplier<RandomGenerator> random;
+    private final LargestFirstSelection fallback = new LargestFirstSelection();
+
+    public RandomImproveSelection() {
+        this(ThreadLocalRandom::current);
+    }
+
+    // Fixed seed: same draws for the same input, for tests and benchmarks
+    public RandomImproveSelection(long seed) {
+        this(() -> new SplittableRandom(seed));
+    }
+
+    private RandomImproveSelection(Supplier<RandomGenerator> random) {
+        this.random = random;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public CoinSelection select(List<Utxo> utxos, long targetLovelace, int maxInputs) {
+        int n = utxos.size();
+        long[] values = new long[n];
+        int[] order = new int[n];
+        long available = 0;
+        for (int i = 0; i < n; i++) {
+            values[i] = utxos.get(i).lovelace();
+            order[i] = i;
+            available += values[i];
+        }
+        if (available < targetLovelace) {
+            throw new InsufficientFundsException(
+                    "Need " + targetLovelace + " lovelace but the address holds " + available);
+        }
+
+        RandomGenerator rng = random.get();
+        List<Utxo> selected = new ArrayList<>();
+        long total = 0;
+        int drawn = 0;
+
+        // Phase 1: random draws until covered
+        while (total < targetLovelace) {
+            if (selected.size() == maxInputs) {
+                return fallback.select(utxos, targetLovelace, maxInputs);
+            }
+            swap(order, drawn, drawn + rng.nextInt(n - drawn));
+            int index = order[drawn++];
+            selected.add(utxos.get(index));
+            total += values[index];
+        }
+
+        // Phase 2: improve towards 2x the target while each draw helps
+        long ideal = 2 * targetLovelace;
+        long upper = 3 * targetLovelace;
+        while (drawn < n && selected.size() < maxInputs) {
+            swap(order, drawn, drawn + rng.nextInt(n - drawn));
+            int index = order[drawn];
+            long candidate = total + values[index];
+            if (candidate > upper || Math.abs(ideal - candidate) >= Math.abs(ideal - total)) {
+                break;
+            }
+            drawn++;
+            selected.add(utxos.get(index));
+            total = candidate;
+        }
+        return new CoinSelection(selected, total);
+    }
+
+    private static void swap(int[] order, int i, int j) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+    }
+}
@@ -0,0 +1,56 @@
+package com.yankee.mynotesapp.cardano;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// A signed transaction accepted for submission. Keyed by tx hash, so submitting
+// the same transaction twice finds the existing row instead of queueing it again.
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "tx_submissions", indexes = {
+        @Index(name = "idx_tx_submissions_status_next", columnList = "status, next_attempt_at")
+})
+public class TxSubmission {
+
+    @Id
+    @Column(name = "tx_hash", length = 64)
+    private String txHash;
+
+    @Column(name = "cbor_hex", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String cborHex;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private TxSubmissionStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // PENDING: when a worker may next pick it up (also pushed forward while a worker holds it)
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "submitted_at")
+    private Instant submittedAt;
+
+    @Column(name = "confirmed_at")
+    private Instant confirmedAt;
+
+    public TxSubmission(String txHash, String cborHex, Instant now) {
+        this.txHash = txHash;
+        this.cborHex = cborHex;
+        this.status = TxSubmissionStatus.PENDING;
+        this.nextAttemptAt = now;
+        this.createdAt = now;
+    }
+}
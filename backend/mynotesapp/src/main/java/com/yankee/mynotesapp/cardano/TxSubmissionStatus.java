@@ -0,0 +1,12 @@
+package com.yankee.mynotesapp.cardano;
+
+public enum TxSubmissionStatus {
+    // Queued, or waiting for a retry
+    PENDING,
+    // Accepted by Blockfrost's mempool, not yet seen on chain
+    SUBMITTED,
+    // Rejected, out of retries, or never made it on chain
+    FAILED,
+    // Included in a block
+    CONFIRMED
+}
@@ -0,0 +1,15 @@
+package com.yankee.mynotesapp.cardano;
+
+import lombok.Value;
+
+import java.math.BigInteger;
+
+// Result of UnsignedTxBuilder: the CBOR to sign plus what went into it
+@Value
+public class UnsignedTx {
+    String cborHex;
+    BigInteger fee;
+    BigInteger change;
+    int inputCount;
+    String strategy;
+}
@@ -0,0 +1,215 @@
+package com.yankee.mynotesapp.cardano;
+
+import com.bloxbean.cardano.client.exception.CborSerializationException;
+import com.bloxbean.cardano.client.transaction.spec.Asset;
+import com.bloxbean.cardano.client.transaction.spec.MultiAsset;
+import com.bloxbean.cardano.client.transaction.spec.Transaction;
+import com.bloxbean.cardano.client.transaction.spec.TransactionBody;
+import com.bloxbean.cardano.client.transaction.spec.TransactionInput;
+import com.bloxbean.cardano.client.transaction.spec.TransactionOutput;
+import com.bloxbean.cardano.client.transaction.spec.TransactionWitnessSet;
+import com.bloxbean.cardano.client.transaction.spec.VkeyWitness;
+import com.bloxbean.cardano.client.util.HexUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds an unsigned payment: coin selection over the sender's UTxOs, one
+ * output to the recipient and one change output back to the sender carrying
+ * the leftover ADA and every native asset of the spent inputs.
+ *
+ * The fee depends on the transaction size, which depends on the inputs and
+ * the change, so selection and sizing repeat until the fee covers the size of
+ * the transaction it is in. Sizing uses a placeholder key witness so the
+ * signature the wallet adds later is already paid for.
+ */
+@Component
+public class UnsignedTxBuilder {
+
+    // Fixed part of the Babbage min-ADA formula
+    private static final long UTXO_ENTRY_OVERHEAD = 160;
+    // Slack for CBOR integers widening when the fee and change settle
+    private static final long FEE_MARGIN_BYTES = 16;
+    private static final int MAX_ROUNDS = 8;
+
+    private final Map<String, CoinSelectionStrategy> strategies = Map.of(
+            LargestFirstSelection.NAME, new LargestFirstSelection(),
+            RandomImproveSelection.NAME, new RandomImproveSelection());
+
+    private final String defaultStrategy;
+    private final int maxInputs;
+    private final long ttlSlots;
+
+    public UnsignedTxBuilder(@Value("${cardano.tx.coin-selection:random-improve}") String defaultStrategy,
+            @Value("${cardano.tx.max-inputs:150}") int maxInputs,
+            @Value("${cardano.tx.ttl-slots:7200}") long ttlSlots) {
+        this.defaultStrategy = defaultStrategy;
+        this.maxInputs = maxInputs;
+        this.ttlSlots = ttlSlots;
+        strategy(defaultStrategy);
+    }
+
+    /**
+     * @param strategyName null for the configured default
+     * @throws IllegalArgumentException for a non-positive or below-minimum amount, or an unknown strategy
+     * @throws InsufficientFundsException if the UTxOs can't cover amount, fee and change
+     */
+    public UnsignedTx build(List<Utxo> utxos, String sender, String recipient, BigInteger amountLovelace,
+            String strategyName, ProtocolParams params, long currentSlot) {
+        CoinSelectionStrategy strategy = strategy(strategyName != null ? strategyName : defaultStrategy);
+        long amount = amountLovelace.longValueExact();
+        long minOutput = minAda(params, recipient, Map.of());
+        if (amount < minOutput) {
+            throw new IllegalArgumentException("Amount is below the minimum output of " + minOutput + " lovelace");
+        }
+
+        long ttl = currentSlot + ttlSlots;
+        // First guess: a one-input, two-output transaction
+        long fee = params.getMinFeeA() * 300 + params.getMinFeeB();
+        long changeReserve = minAda(params, sender, Map.of());
+
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            CoinSelection selection = strategy.select(utxos, amount + fee + changeReserve, maxInputs);
+            Map<String, BigInteger> assets = assetsOf(selection.getInputs());
+            long change = selection.getLovelace() - amount - fee;
+
+            // Native assets in the change raise its minimum: select again with a bigger reserve
+            long minChange = minAda(params, sender, assets);
+            if (change < minChange) {
+                changeReserve = minChange;
+                continue;
+            }
+
+            byte[] sized = serialize(transaction(selection.getInputs(), sender, recipient, amount, change, assets,
+                    fee, ttl, true));
+            long required = params.getMinFeeA() * (sized.length + FEE_MARGIN_BYTES) + params.getMinFeeB();
+            if (required > fee) {
+                fee = required;
+                continue;
+            }
+
+            if (params.getMaxTxSize() > 0 && sized.length > params.getMaxTxSize()) {
+                throw new IllegalArgumentException("Transaction would be " + sized.length
+                        + " bytes, above the " + params.getMaxTxSize() + " byte limit");
+            }
+
+            // Fee guess was generous: hand the excess back as change
+            long finalChange = change + (fee - required);
+            byte[] cbor = serialize(transaction(selection.getInputs(), sender, recipient, amount, finalChange,
+                    assets, required, ttl, false));
+            return new UnsignedTx(HexUtil.encodeHexString(cbor), BigInteger.valueOf(required),
+                    BigInteger.valueOf(finalChange), selection.getInputs().size(), strategy.name());
+        }
+        throw new IllegalStateException("Fee did not settle after " + MAX_ROUNDS + " rounds");
+    }
+
+    private CoinSelectionStrategy strategy(String name) {
+        CoinSelectionStrategy strategy = strategies.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown coin selection strategy: " + name
+                    + " (expected one of " + strategies.keySet() + ")");
+        }
+        return strategy;
+    }
+
+    private static Transaction transaction(List<Utxo> inputs, String sender, String recipient, long amount,
+            long change, Map<String, BigInteger> assets, long fee, long ttl, boolean withPlaceholderWitness) {
+        List<TransactionInput> txInputs = new ArrayList<>(inputs.size());
+        for (Utxo utxo : inputs) {
+            txInputs.add(TransactionInput.builder()
+                    .transactionId(utxo.getTxHash())
+                    .index(utxo.getOutputIndex())
+                    .build());
+        }
+
+        List<TransactionOutput> outputs = new ArrayList<>(2);
+        outputs.add(output(recipient, amount, Map.of()));
+        outputs.add(output(sender, change, assets));
+
+        TransactionBody body = TransactionBody.builder()
+                .inputs(txInputs)
+                .outputs(outputs)
+                .fee(BigInteger.valueOf(fee))
+                .ttl(ttl)
+                .build();
+
+        TransactionWitnessSet witnesses = new TransactionWitnessSet();
+        if (withPlaceholderWitness) {
+            // All inputs belong to the sender: one key, one signature
+            witnesses.setVkeyWitnesses(List.of(new VkeyWitness(new byte[32], new byte[64])));
+        }
+        return Transaction.builder()
+                .body(body)
+                .witnessSet(witnesses)
+                .build();
+    }
+
+    private static byte[] serialize(Transaction transaction) {
+        try {
+            return transaction.serialize();
+        } catch (CborSerializationException e) {
+            throw new IllegalStateException("Transaction serialization failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static TransactionOutput output(String address, long lovelace, Map<String, BigInteger> assets) {
+        // policy id (56 hex chars) -> assets under it; TreeMap keeps the CBOR deterministic
+        Map<String, List<Asset>> byPolicy = new TreeMap<>();
+        assets.forEach((unit, quantity) -> byPolicy
+                .computeIfAbsent(unit.substring(0, 56), p -> new ArrayList<>())
+                .add(Asset.builder().name("0x" + unit.substring(56)).value(quantity).build()));
+
+        List<MultiAsset> multiAssets = new ArrayList<>(byPolicy.size());
+        byPolicy.forEach((policyId, list) -> multiAssets.add(MultiAsset.builder()
+                .policyId(policyId)
+                .assets(list)
+                .build()));
+
+        return TransactionOutput.builder()
+                .address(address)
+                .value(com.bloxbean.cardano.client.transaction.spec.Value.builder()
+                        .coin(BigInteger.valueOf(lovelace))
+                        .multiAssets(multiAssets)
+                        .build())
+                .build();
+    }
+
+    // Native assets (everything but lovelace) held by the inputs, by unit
+    private static Map<String, BigInteger> assetsOf(List<Utxo> inputs) {
+        Map<String, BigInteger> assets = new TreeMap<>(new AssetTotals().addAll(inputs).getTotals());
+        assets.remove(UtxoAmount.LOVELACE);
+        return assets;
+    }
+
+    /**
+     * Minimum lovelace for an output, from an estimate of its serialized size:
+     * address bytes, the coin, and per policy / per asset overheads.
+     */
+    static long minAda(ProtocolParams params, String address, Map<String, BigInteger> assets) {
+        long size = 10 + addressBytes(address);
+        if (!assets.isEmpty()) {
+            size += 6;
+            String lastPolicy = null;
+            for (String unit : assets.keySet()) {
+                String policy = unit.substring(0, 56);
+                if (!policy.equals(lastPolicy)) {
+                    size += 28 + 3;
+                    lastPolicy = policy;
+                }
+                size += (unit.length() - 56) / 2 + 12;
+            }
+        }
+        return (UTXO_ENTRY_OVERHEAD + size) * params.getCoinsPerUtxoSize();
+    }
+
+    // Shelley base addresses are 57 bytes, enterprise 29; bech32 length is a close enough guide
+    private static long addressBytes(String address) {
+        return address != null && address.length() < 70 ? 29 : 57;
+    }
+}
@@ -0,0 +1,90 @@
+package com.yankee.mynotesapp.cardano;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A hard time limit for the Blockfrost calls made on the current thread.
+ * Inside until(), each request the Blockfrost client sends is aborted when the
+ * deadline passes (see BlockfrostClientConfig), whether it is waiting for a
+ * connection, for the response or in the middle of the body, and requests
+ * started after it fail at once. Outside, only the client's per-read
+ * timeouts apply.
+ */
+public final class UpstreamDeadline {
+
+    private static final ThreadLocal<Budget> CURRENT = new ThreadLocal<>();
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+    private UpstreamDeadline() {
+    }
+
+    // deadlineNanos is a System.nanoTime() value; an enclosing deadline that is sooner still wins
+    public static <T> T until(long deadlineNanos, Supplier<T> call) {
+        Budget outer = CURRENT.get();
+        Budget budget = new Budget(outer != null && outer.deadlineNanos - deadlineNanos < 0
+                ? outer.deadlineNanos : deadlineNanos);
+        CURRENT.set(budget);
+        try {
+            return call.get();
+        } finally {
+            budget.close();
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    // Nanoseconds left on this thread's deadline (0 once passed), or Long.MAX_VALUE outside until()
+    public static long remainingNanos() {
+        Budget budget = CURRENT.get();
+        return budget == null ? Long.MAX_VALUE : Math.max(0, budget.deadlineNanos - System.nanoTime());
+    }
+
+    // Runs abort when this thread's deadline passes (right away if it has); a no-op outside until()
+    public static void abortOnExpiry(Runnable abort) {
+        Budget budget = CURRENT.get();
+        if (budget != null) {
+            budget.schedule(abort);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "upstream-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private static final class Budget {
+        private final long deadlineNanos;
+        // Only touched by the owning thread
+        private final List<ScheduledFuture<?>> aborts = new ArrayList<>();
+
+        private Budget(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private void schedule(Runnable abort) {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                abort.run();
+            } else {
+                aborts.add(TIMER.schedule(abort, remaining, TimeUnit.NANOSECONDS));
+            }
+        }
+
+        private void close() {
+            aborts.forEach(abort -> abort.cancel(false));
+        }
+    }
+}
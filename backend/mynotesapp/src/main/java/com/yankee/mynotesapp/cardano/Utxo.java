@@ -0,0 +1,58 @@
+package com.yankee.mynotesapp.cardano;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One unspent output as Blockfrost's /addresses/{address}/utxos returns it.
+ * Field names stay snake_case on the wire so responses keep Blockfrost's shape.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Utxo {
+
+    private String address;
+
+    @JsonProperty("tx_hash")
+    private String txHash;
+
+    @JsonProperty("output_index")
+    private int outputIndex;
+
+    private List<UtxoAmount> amount;
+
+    private String block;
+
+    @JsonProperty("data_hash")
+    private String dataHash;
+
+    @JsonProperty("inline_datum")
+    private String inlineDatum;
+
+    @JsonProperty("reference_script_hash")
+    private String referenceScriptHash;
+
+    // "txHash#index", the usual way to name an output
+    public String outRef() {
+        return txHash + "#" + outputIndex;
+    }
+
+    // ADA held by this output, in lovelace (always fits a long: total supply is 4.5e16)
+    public long lovelace() {
+        if (amount != null) {
+            for (UtxoAmount a : amount) {
+                if (UtxoAmount.LOVELACE.equals(a.getUnit()) && a.getQuantity() != null) {
+                    return a.getQuantity().longValueExact();
+                }
+            }
+        }
+        return 0L;
+    }
+}
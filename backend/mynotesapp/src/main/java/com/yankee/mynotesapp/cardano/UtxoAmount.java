@@ -0,0 +1,23 @@
+package com.yankee.mynotesapp.cardano;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigInteger;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtxoAmount {
+
+    public static final String LOVELACE = "lovelace";
+
+    // "lovelace", or policy id + hex asset name for native tokens
+    private String unit;
+
+    // Written as a string, like Blockfrost does, so JavaScript clients keep full precision
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private BigInteger quantity;
+}
@@ -0,0 +1,50 @@
+package com.yankee.mynotesapp.cardano;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Reads one page of Blockfrost UTxOs (a JSON array) token by token and hands
+ * each element to a consumer as soon as it is bound, so a page is never held
+ * as a whole, neither as a list nor as a tree of maps.
+ */
+public class UtxoPageParser {
+
+    private final ObjectMapper objectMapper;
+    // Binds one array element at a time, so the rest of the array is expected after each value
+    private final ObjectReader utxoReader;
+
+    public UtxoPageParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.utxoReader = objectMapper.readerFor(Utxo.class)
+                .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    }
+
+    /**
+     * @return number of UTxOs on the page
+     */
+    public int parse(InputStream body, Consumer<Utxo> consumer) {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return 0;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("Expected a JSON array of UTxOs but got " + token);
+            }
+
+            int count = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(utxoReader.readValue(parser));
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.yankee.mynotesapp.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// Spring Security user that also carries our database id, so controllers
+// can scope queries without looking the user up again
+public class AppUserDetails extends User {
+
+    private final Long id;
+
+    public AppUserDetails(Long id, String username, String password,
+            Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
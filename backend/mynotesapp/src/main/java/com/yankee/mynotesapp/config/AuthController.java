@@ -3,17 +3,15 @@ package com.yankee.mynotesapp.auth;
 import com.yankee.mynotesapp.model.User;
 import com.yankee.mynotesapp.config.JwtUtil;
 import com.yankee.mynotesapp.repository.UserRepository;
-import com.yankee.mynotesapp.config.CustomUserDetailsService;
+import com.yankee.mynotesapp.service.LoginService;
 
 import jakarta.annotation.security.PermitAll;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +20,9 @@ import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -33,14 +34,11 @@ public class AuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    @Autowired
-    private AuthenticationManager authenticationManager;
-
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private LoginService loginService;
 
     // ----------------------------------------------------
     // SIGNUP (FIXED VERSION)
@@ -124,28 +122,47 @@ public class AuthController {
     // ----------------------------------------------------
     // LOGIN
     // ----------------------------------------------------
+    // The password check runs on the login pool; the servlet thread is released meanwhile.
+    // A full pool answers 503 right away instead of queueing behind other logins.
     @PermitAll
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody AuthRequest request) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody AuthRequest request) {
 
+        CompletableFuture<ResponseEntity<?>> result;
         try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getUsername(),
-                            request.getPassword()));
-        } catch (Exception e) {
-            Map<String, Object> resp = new HashMap<>();
-            resp.put("message", "Invalid username or password");
-            return new ResponseEntity<>(resp, HttpStatus.UNAUTHORIZED);
+            result = loginService.authenticate(request.getUsername(), request.getPassword())
+                    .thenApply(userDetails -> {
+                        if (userDetails.isEmpty()) {
+                            Map<String, Object> resp = new HashMap<>();
+                            resp.put("message", "Invalid username or password");
+                            return new ResponseEntity<>(resp, HttpStatus.UNAUTHORIZED);
+                        }
+
+                        Map<String, Object> response = new HashMap<>();
+                        response.put("token", jwtUtil.generateToken(userDetails.get()));
+                        response.put("message", "Login successful");
+                        return ResponseEntity.ok(response);
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(loginBusy());
         }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        String token = jwtUtil.generateToken(userDetails);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("token", token);
-        response.put("message", "Login successful");
+        return result.exceptionally(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RejectedExecutionException) {
+                return loginBusy();
+            }
+            Map<String, Object> resp = new HashMap<>();
+            resp.put("message", "Login failed");
+            return new ResponseEntity<>(resp, HttpStatus.INTERNAL_SERVER_ERROR);
+        });
+    }
 
-        return ResponseEntity.ok(response);
+    private static ResponseEntity<?> loginBusy() {
+        Map<String, Object> resp = new HashMap<>();
+        resp.put("message", "Too many logins in progress, please retry");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(resp);
     }
 }
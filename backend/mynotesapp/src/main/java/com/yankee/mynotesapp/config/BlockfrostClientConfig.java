@@ -0,0 +1,144 @@
+package com.yankee.mynotesapp.config;
+
+import com.yankee.mynotesapp.cardano.BlockfrostMetricsInterceptor;
+import com.yankee.mynotesapp.cardano.UpstreamDeadline;
+import com.yankee.mynotesapp.resilience.Bulkhead;
+import com.yankee.mynotesapp.resilience.CircuitBreaker;
+import com.yankee.mynotesapp.resilience.ResilienceInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.Cancellable;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one HTTP client all Blockfrost traffic goes through: pooled keep-alive
+ * connections with bounded connect, response and pool-wait times, so a slow
+ * upstream ties up a request for at most those timeouts. A bulkhead and a
+ * circuit breaker sit in front of it, so an overloaded or failing upstream is
+ * refused immediately instead of costing every caller a timeout. Callers
+ * with a budget of their own (wallet lookups) bound their calls further with
+ * UpstreamDeadline.
+ */
+@Configuration
+public class BlockfrostClientConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockfrostClientConfig.class);
+
+    @Bean
+    public PoolingHttpClientConnectionManager blockfrostConnectionManager(
+            @Value("${blockfrost.http.max-connections:50}") int maxConnections,
+            @Value("${blockfrost.http.max-connections-per-route:20}") int maxPerRoute,
+            @Value("${blockfrost.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${blockfrost.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        return connectionManager(maxConnections, maxPerRoute, connectTimeoutMs, readTimeoutMs);
+    }
+
+    @Bean
+    public CloseableHttpClient blockfrostHttpClient(PoolingHttpClientConnectionManager blockfrostConnectionManager,
+            @Value("${blockfrost.http.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${blockfrost.http.pool-wait-ms:1000}") long poolWaitMs) {
+        return httpClient(blockfrostConnectionManager, readTimeoutMs, poolWaitMs);
+    }
+
+    // Opens when half of the last 20 calls failed; after open-seconds, a few probes decide whether to close
+    @Bean
+    public CircuitBreaker blockfrostCircuitBreaker(
+            @Value("${blockfrost.circuit.window-size:20}") int windowSize,
+            @Value("${blockfrost.circuit.min-calls:10}") int minCalls,
+            @Value("${blockfrost.circuit.failure-rate:0.5}") double failureRate,
+            @Value("${blockfrost.circuit.open-seconds:30}") long openSeconds,
+            @Value("${blockfrost.circuit.half-open-probes:3}") int probes) {
+        CircuitBreaker breaker = new CircuitBreaker(windowSize, minCalls, failureRate,
+                TimeUnit.SECONDS.toNanos(openSeconds), probes);
+        breaker.setListener((from, to) -> {
+            if (to == CircuitBreaker.State.OPEN) {
+                log.warn("Blockfrost circuit {} -> OPEN; failing fast for {}s", from, openSeconds);
+            } else {
+                log.info("Blockfrost circuit {} -> {}", from, to);
+            }
+        });
+        return breaker;
+    }
+
+    // Kept below max-connections-per-route so callers are turned away before they queue for a connection
+    @Bean
+    public Bulkhead blockfrostBulkhead(
+            @Value("${blockfrost.bulkhead.max-concurrent:16}") int maxConcurrent,
+            @Value("${blockfrost.bulkhead.max-wait-ms:200}") long maxWaitMs) {
+        return new Bulkhead(maxConcurrent, maxWaitMs);
+    }
+
+    @Bean
+    public RestTemplate blockfrostRestTemplate(CloseableHttpClient blockfrostHttpClient,
+            CircuitBreaker blockfrostCircuitBreaker, Bulkhead blockfrostBulkhead, MeterRegistry meterRegistry,
+            @Value("${blockfrost.base-url:https://cardano-preprod.blockfrost.io/api/v0}") String baseUrl) {
+        RestTemplate restTemplate = restTemplate(blockfrostHttpClient, baseUrl);
+        // Metrics outermost, so calls the breaker or bulkhead refuse are counted too
+        restTemplate.getInterceptors().add(new BlockfrostMetricsInterceptor(meterRegistry));
+        restTemplate.getInterceptors().add(
+                new ResilienceInterceptor("Blockfrost", blockfrostCircuitBreaker, blockfrostBulkhead));
+        return restTemplate;
+    }
+
+    // Static builders below are shared with the tests, which run them against the stub server
+
+    static PoolingHttpClientConnectionManager connectionManager(int maxConnections, int maxPerRoute,
+            long connectTimeoutMs, long readTimeoutMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Recycle long-lived connections so DNS / load-balancer changes are picked up
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .build())
+                .build();
+    }
+
+    static CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+            long readTimeoutMs, long poolWaitMs) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // How long a request may wait for a free pooled connection
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+    }
+
+    static RestTemplate restTemplate(CloseableHttpClient httpClient, String baseUrl) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient) {
+            @Override
+            protected void postProcessHttpRequest(ClassicHttpRequest request) {
+                // Cut the call short at the caller's UpstreamDeadline, if it has one
+                if (request instanceof Cancellable cancellable) {
+                    UpstreamDeadline.abortOnExpiry(cancellable::cancel);
+                }
+            }
+        });
+        restTemplate.setUriTemplateHandler(new DefaultUriBuilderFactory(baseUrl));
+        return restTemplate;
+    }
+}
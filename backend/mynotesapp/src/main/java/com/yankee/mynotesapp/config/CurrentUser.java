@@ -0,0 +1,24 @@
+package com.yankee.mynotesapp.config;
+
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+// Reads the authenticated user that JwtAuthFilter put in the security context
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    public static AppUserDetails get() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AppUserDetails user)) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user");
+        }
+        return user;
+    }
+
+    public static Long id() {
+        return get().getId();
+    }
+}
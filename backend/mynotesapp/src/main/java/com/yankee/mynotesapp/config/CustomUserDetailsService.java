@@ -1,6 +1,6 @@
 package com.yankee.mynotesapp.config;
 
-import com.yankee.mynotesapp.repository.UserRepository;
+import com.yankee.mynotesapp.service.UserCacheService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -16,13 +16,13 @@ import java.util.List;
 public class CustomUserDetailsService implements UserDetailsService {
 
         @Autowired
-        private UserRepository userRepository;
+        private UserCacheService userCacheService;
 
         @Override
         public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
 
-                // ⬅️ FIX 1: Change findByEmail to findByUsername
-                com.yankee.mynotesapp.model.User user = userRepository.findByUsername(usernameOrEmail)
+                // ⬅️ FIX 1: Change findByEmail to findByUsername (served from the user cache)
+                com.yankee.mynotesapp.model.User user = userCacheService.findByUsername(usernameOrEmail)
                                 .orElseThrow(
                                                 () -> new UsernameNotFoundException(
                                                                 "User not found with username/email: "
@@ -32,10 +32,12 @@ public class CustomUserDetailsService implements UserDetailsService {
                 List<GrantedAuthority> authorities = Collections.singletonList(
                                 new SimpleGrantedAuthority("ROLE_USER"));
 
-                return new org.springframework.security.core.userdetails.User(
+                // Carries the user id so it can be embedded in the JWT
+                return new AppUserDetails(
+                                user.getId(),
                                 // ⬅️ FIX 2: Change user.getEmail() to user.getUsername()
                                 user.getUsername(),
                                 user.getPassword(),
                                 authorities);
         }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.yankee.mynotesapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache: one bounded in-process Caffeine cache per
+ * region, behind JCache. Every region the mappings use is created here, and
+ * Hibernate is told to fail on any other (see application.properties), so a
+ * new @Cache region can't quietly fall back to an unbounded default cache.
+ *
+ * Entries also expire after a TTL. Within one instance Hibernate keeps the
+ * regions in step with every write made through it; the TTL bounds how long
+ * another instance's writes (or manual SQL) can go unnoticed.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    // User by id, and username -> id for natural-id lookups
+    public static final String USERS = "users";
+    public static final String USERS_BY_USERNAME = "users-by-username";
+    // Note by id, and each user's list of note ids (User.notes)
+    public static final String NOTES = "notes";
+    public static final String USER_NOTES = "user-notes";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${user.cache.max-size:10000}") long maxUsers,
+            @Value("${user.cache.ttl-seconds:300}") long userTtlSeconds,
+            @Value("${notes.cache.max-size:20000}") long maxNotes,
+            @Value("${notes.cache.max-lists:5000}") long maxLists,
+            @Value("${notes.cache.ttl-seconds:300}") long noteTtlSeconds) {
+        // The provider hands out one manager per URI; a URI per context keeps test contexts apart
+        URI uri = URI.create("hibernate-second-level-cache-" + Integer.toHexString(System.identityHashCode(this)));
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, getClass().getClassLoader());
+        cacheManager.createCache(USERS, region(maxUsers, userTtlSeconds));
+        cacheManager.createCache(USERS_BY_USERNAME, region(maxUsers, userTtlSeconds));
+        cacheManager.createCache(NOTES, region(maxNotes, noteTtlSeconds));
+        cacheManager.createCache(USER_NOTES, region(maxLists, noteTtlSeconds));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager(CacheManager hibernateCacheManager) {
+        return properties -> properties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+        config.setMaximumSize(OptionalLong.of(maxSize));
+        config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        // Hibernate already caches a disassembled copy of the state; no need to copy it again
+        config.setStoreByValue(false);
+        return config;
+    }
+}
@@ -1,11 +1,14 @@
 package com.yankee.mynotesapp.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,6 +16,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -23,6 +28,24 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    // auth.jwt.verify{outcome=valid|invalid}; cache hits and misses are bound from JwtUtil
+    private Timer validTimer;
+    private Timer invalidTimer;
+
+    @Autowired
+    void registerMeters(MeterRegistry registry) {
+        validTimer = verifyTimer(registry, "valid");
+        invalidTimer = verifyTimer(registry, "invalid");
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("auth.jwt.verify")
+                .description("JWT parse and signature check, including cache hits")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -36,7 +59,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String token;
-        final String username;
+        final VerifiedToken verified;
 
         // If no token is present, let the request proceed.
         // If the endpoint is protected, Spring Security will block it later.
@@ -47,26 +70,39 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         token = authHeader.substring(7);
 
+        long start = System.nanoTime();
         try {
-            username = jwtUtil.extractUsername(token);
+            // Single parse + signature check (cached for tokens already seen)
+            verified = jwtUtil.verify(token);
+            validTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         } catch (Exception e) {
+            invalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             // Token is invalid/expired. Log the error (optional) and proceed
             // unauthenticated.
             filterChain.doFilter(request, response);
             return;
         }
 
+        String username = verified.getUsername();
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails;
+            if (verified.getUserId() != null) {
+                // Identity comes from the signed claims, no database lookup needed
+                List<SimpleGrantedAuthority> authorities = verified.getRoles().stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .toList();
+                userDetails = new AppUserDetails(verified.getUserId(), username, "", authorities);
+            } else {
+                // Tokens issued before the id claim existed fall back to the (cached) lookup
+                userDetails = userDetailsService.loadUserByUsername(username);
+            }
 
-            if (jwtUtil.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                // Set the user in the security context for the current request
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+            // Set the user in the security context for the current request
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
@@ -2,58 +2,111 @@
 
 package com.yankee.mynotesapp.config;
 
-import io.jsonwebtoken.Claims; // ADD THIS
+import com.yankee.mynotesapp.cache.ExpiringCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders; // ADD THIS
+import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.security.Key; // ADD THIS
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function; // ADD THIS
+import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
-    // IMPORTANT: Use a hardcoded key for the MVP, or place this in
-    // application.properties later.
-    // Length must be at least 512 bits (64 characters)
-    @Value("${jwt.secret:512bit_secret_key_for_jwt_validation_and_signing_notes_app_key_312456}")
-    private String SECRET;
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLES = "roles";
 
-    @Value("${jwt.expiration.ms:3600000}") // 1 hour default
-    private long expirationMs;
+    // Key and parser are built once at startup instead of on every call
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long expirationMs;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+    // Tokens that already passed signature verification, kept until they expire
+    private final ExpiringCache<String, VerifiedToken> verifiedTokens;
+
+    public JwtUtil(
+            // Length must be at least 512 bits (64 characters)
+            @Value("${jwt.secret:512bit_secret_key_for_jwt_validation_and_signing_notes_app_key_312456}") String secret,
+            @Value("${jwt.expiration.ms:3600000}") long expirationMs, // 1 hour default
+            @Value("${jwt.cache.max-size:10000}") int cacheMaxSize) {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.expirationMs = expirationMs;
+        this.verifiedTokens = new ExpiringCache<>(cacheMaxSize);
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        // Identity travels with the token so requests don't need a user lookup
+        if (userDetails instanceof AppUserDetails appUser) {
+            claims.put(CLAIM_USER_ID, appUser.getId());
+        }
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     // --- Validation Methods ---
 
+    /**
+     * Parses and verifies the token once. Tokens seen before are answered from
+     * the cache without redoing the HS512 check.
+     *
+     * @throws JwtException if the token is malformed, badly signed or expired
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                roles != null ? roles.stream().map(String::valueOf).toList() : List.of(),
+                toInstant(claims.getIssuedAt()),
+                toInstant(claims.getExpiration()));
+
+        // The parser already rejects expired tokens; tokens without exp are not cached
+        if (verified.getExpiration() != null) {
+            verifiedTokens.put(token, verified, verified.getExpiration().toEpochMilli());
+        }
+        return verified;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getUsername();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        Instant expiration = verify(token).getExpiration();
+        return expiration != null ? Date.from(expiration) : null;
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -61,20 +114,34 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    private static Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        try {
+            VerifiedToken verified = verify(token);
+            return verified.getUsername().equals(userDetails.getUsername()) && !verified.isExpired();
+        } catch (ExpiredJwtException e) {
+            return false;
+        }
+    }
+
+    // --- Cache statistics ---
+
+    public long getCacheHits() {
+        return verifiedTokens.getHits();
+    }
+
+    public long getCacheMisses() {
+        return verifiedTokens.getMisses();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public int getCacheSize() {
+        return verifiedTokens.size();
     }
-}
\ No newline at end of file
+}
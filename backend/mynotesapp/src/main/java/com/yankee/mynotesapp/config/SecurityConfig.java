@@ -9,7 +9,14 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.yankee.mynotesapp.metrics.TimedPasswordEncoder;
+import com.yankee.mynotesapp.ratelimit.AuthRateLimitFilter;
+import com.yankee.mynotesapp.ratelimit.AuthRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.ObjectMapper;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -36,10 +43,23 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
-    // 1. Password Encoder Bean
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Raising it upgrades existing hashes the next time each user logs in
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 1. Password Encoder Bean (timed: auth.password.hash)
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), meterRegistry);
     }
 
     // 2. Authentication Provider
@@ -86,6 +106,9 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
+                // Throttle login / signup before anything else looks at the request
+                .addFilterBefore(new AuthRateLimitFilter(authRateLimiter, objectMapper),
+                        UsernamePasswordAuthenticationFilter.class)
                 // CRITICAL: Add the JWT Filter
                 .addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class);
 
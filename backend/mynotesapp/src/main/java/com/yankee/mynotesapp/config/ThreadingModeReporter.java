@@ -0,0 +1,47 @@
+package com.yankee.mynotesapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs which thread model serves requests. spring.threads.virtual.enabled is
+ * silently ignored below JDK 21 (the app is built for 17), so asking for
+ * virtual threads on an older runtime gets a warning instead.
+ *
+ * With virtual threads on, Tomcat request handling, the MVC async executor
+ * (streaming exports, async logins' completion), @Scheduled jobs and the
+ * wallet lookup and tx submission workers (see WorkerThreads) run on virtual
+ * threads, and so do the blocking JDBC and Blockfrost calls made from them.
+ * Our own locks (CircuitBreaker, the search index rebuild) are j.u.c locks,
+ * not synchronized, so waiting on them doesn't pin carriers; the login pool
+ * stays on platform threads since BCrypt is CPU-bound.
+ */
+@Component
+public class ThreadingModeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeReporter.class);
+
+    private final Environment environment;
+
+    public ThreadingModeReporter(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests on virtual threads (JDK {})", Runtime.version().feature());
+        } else if (requested) {
+            log.warn("spring.threads.virtual.enabled is set but JDK {} has no virtual threads; "
+                    + "using platform threads", Runtime.version().feature());
+        } else {
+            log.info("Serving requests on platform threads");
+        }
+    }
+}
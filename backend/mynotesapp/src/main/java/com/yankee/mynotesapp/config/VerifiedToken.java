@@ -0,0 +1,21 @@
+package com.yankee.mynotesapp.config;
+
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+// Immutable result of a successful JWT verification (signature + expiry checked)
+@Value
+public class VerifiedToken {
+    String username;
+    // null for tokens issued before ids were embedded
+    Long userId;
+    List<String> roles;
+    Instant issuedAt;
+    Instant expiration;
+
+    public boolean isExpired() {
+        return expiration.isBefore(Instant.now());
+    }
+}
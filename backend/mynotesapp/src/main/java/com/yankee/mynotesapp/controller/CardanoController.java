@@ -1,55 +1,206 @@
 package com.yankee.mynotesapp.controller;
 
+import com.yankee.mynotesapp.config.CurrentUser;
+import com.yankee.mynotesapp.model.User;
+import com.yankee.mynotesapp.resilience.UpstreamUnavailableException;
 import com.yankee.mynotesapp.service.CardanoService;
+import com.yankee.mynotesapp.service.TxSubmissionService;
+import com.yankee.mynotesapp.service.UserCacheService;
+import com.yankee.mynotesapp.service.WalletService;
 import com.yankee.mynotesapp.cardano.CardanoTxRequest; // ⬅️ NEW IMPORT
+import com.yankee.mynotesapp.cardano.InsufficientFundsException;
+import com.yankee.mynotesapp.cardano.TxSubmission;
+import com.yankee.mynotesapp.cardano.TxSubmissionStatus;
+import com.yankee.mynotesapp.cardano.UnsignedTx;
+import com.yankee.mynotesapp.cardano.Utxo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/cardano")
 public class CardanoController {
 
+    private static final Logger log = LoggerFactory.getLogger(CardanoController.class);
+
     @Autowired
     private CardanoService cardanoService;
 
+    @Autowired
+    private WalletService walletService;
+
+    @Autowired
+    private TxSubmissionService txSubmissionService;
+
+    @Autowired
+    private UserCacheService userCacheService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/utxos")
     public ResponseEntity<?> getUTxOs(@RequestParam String address) {
         try {
-            List<Map<String, Object>> utxos = cardanoService.getUTxOs(address);
+            List<Utxo> utxos = cardanoService.getUTxOs(address);
             return ResponseEntity.ok(utxos);
+        } catch (UpstreamUnavailableException e) {
+            return unavailable(e);
         } catch (Exception e) {
-            System.err.println("UTXO Fetch Error: " + e.getMessage());
+            log.error("UTxO fetch failed", e);
             return ResponseEntity.status(500).body(Map.of("message", "Failed to fetch UTxOs", "error", e.getMessage()));
         }
     }
 
+    // GET /api/cardano/utxos/stream?address= - Every UTxO as NDJSON, written a Blockfrost page at a time
+    // after each page's upstream call has finished, so slow readers don't tie up the Blockfrost bulkhead
+    @GetMapping("/utxos/stream")
+    public ResponseEntity<StreamingResponseBody> streamUTxOs(@RequestParam String address) {
+        StreamingResponseBody body = out -> cardanoService.streamUTxOs(address, utxo -> writeLine(out, utxo));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // GET /api/cardano/balance?address= - Per-asset totals without collecting the UTxOs
+    @GetMapping("/balance")
+    public CompletableFuture<ResponseEntity<?>> getBalance(@RequestParam String address) {
+        return walletService.balance(address)
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof UpstreamUnavailableException unavailable) {
+                        return unavailable(unavailable);
+                    }
+                    int status = cause instanceof RejectedExecutionException ? 503 : 502;
+                    return ResponseEntity.status(status).body(
+                            Map.of("message", "Failed to fetch UTxOs", "error", String.valueOf(cause.getMessage())));
+                });
+    }
+
+    // Blockfrost circuit open or bulkhead full: fail fast and say when to come back
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<?> unavailable(UpstreamUnavailableException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("message", "Blockfrost is temporarily unavailable", "error", e.getMessage()));
+    }
+
+    private void writeLine(OutputStream out, Utxo utxo) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(utxo));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // GET /api/cardano/wallet - UTxOs and balance of every Cardano address linked to the user.
+    // Lookups run in parallel off the servlet thread; slow addresses come back as "timeout".
+    @GetMapping("/wallet")
+    public CompletableFuture<ResponseEntity<?>> getLinkedWallet() {
+        User user = userCacheService.findByUsername(CurrentUser.get().getUsername()).orElse(null);
+        if (user == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(404).body(Map.of("message", "User not found.")));
+        }
+
+        List<String> addresses = new ArrayList<>();
+        for (String address : new String[] { user.getWalletAddress(), user.getSecondaryWalletAddress() }) {
+            // walletAddress may hold the EVM (MetaMask) address, which has no UTxOs
+            if (address != null && !address.isBlank() && !address.startsWith("0x")) {
+                addresses.add(address.trim());
+            }
+        }
+        return summarize(addresses);
+    }
+
+    // POST /api/cardano/wallet {"addresses": [...]} - Same, for an explicit list of addresses
+    @PostMapping("/wallet")
+    public CompletableFuture<ResponseEntity<?>> getWallet(@RequestBody Map<String, List<String>> body) {
+        List<String> requested = body.get("addresses");
+        if (requested == null || requested.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("message", "At least one address is required.")));
+        }
+
+        Set<String> addresses = new LinkedHashSet<>();
+        for (String address : requested) {
+            if (address != null && !address.isBlank()) {
+                addresses.add(address.trim());
+            }
+        }
+        if (addresses.size() > WalletService.MAX_ADDRESSES) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                    Map.of("message", "At most " + WalletService.MAX_ADDRESSES + " addresses per request.")));
+        }
+        return summarize(new ArrayList<>(addresses));
+    }
+
+    private CompletableFuture<ResponseEntity<?>> summarize(List<String> addresses) {
+        return walletService.summarize(addresses).thenApply(ResponseEntity::ok);
+    }
+
     // ⬅️ NEW ENDPOINT: Builds the raw transaction for the wallet to sign
     @PostMapping("/build-unsigned-tx")
     public ResponseEntity<?> buildTx(@RequestBody CardanoTxRequest request) {
+        if (request.getAmountAda() == null) {
+            return ResponseEntity.badRequest().body(Map.of("message", "amountAda is required."));
+        }
+        BigInteger amountLovelace;
         try {
-            // Call the service to perform the complex transaction building
-            String unsignedTxHex = cardanoService.buildUnsignedTransaction(
+            // Exact: 1.5 ADA -> 1500000 lovelace; more than 6 decimals is rejected, never rounded
+            amountLovelace = request.getAmountAda().movePointRight(6).toBigIntegerExact();
+        } catch (ArithmeticException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "amountAda allows at most 6 decimal places."));
+        }
+
+        try {
+            UnsignedTx tx = cardanoService.buildUnsignedTransaction(
                     request.getSenderAddress(),
                     request.getRecipientAddress(),
-                    request.getAmountAda());
-
-            // Returns the raw CBOR hex of the unsigned transaction
-            return ResponseEntity.ok(Map.of("unsignedTxHex", unsignedTxHex));
-        } catch (UnsupportedOperationException e) {
-            // This is the expected error until you implement the complex building logic in
-            // the Service
-            return ResponseEntity.status(501).body(
-                    Map.of("message", "Transaction building not implemented on the server.", "error", e.getMessage()));
+                    amountLovelace,
+                    request.getCoinSelection());
+
+            // Returns the raw CBOR hex of the unsigned transaction; lovelace amounts as strings
+            Map<String, Object> response = new HashMap<>();
+            response.put("unsignedTxHex", tx.getCborHex());
+            response.put("fee", tx.getFee().toString());
+            response.put("change", tx.getChange().toString());
+            response.put("inputs", tx.getInputCount());
+            response.put("coinSelection", tx.getStrategy());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | InsufficientFundsException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "Cannot build transaction", "error", e.getMessage()));
+        } catch (UpstreamUnavailableException e) {
+            return unavailable(e);
         } catch (Exception e) {
-            System.err.println("Transaction Build Error: " + e.getMessage());
+            log.error("Transaction build failed", e);
             return ResponseEntity.status(500)
-                    .body(Map.of("message", "Failed to build transaction", "error", e.getMessage()));
+                    .body(Map.of("message", "Failed to build transaction", "error", String.valueOf(e.getMessage())));
         }
     }
 
+    // POST /api/cardano/submit-tx - Queues the signed transaction and returns at once (202).
+    // Workers submit it in the background; poll GET /submit-tx/{txHash} for the outcome.
     @PostMapping("/submit-tx")
     public ResponseEntity<?> submitTx(@RequestBody Map<String, String> body) {
         String signedTxHex = body.get("signedTxHex");
@@ -59,12 +210,43 @@ public class CardanoController {
         }
 
         try {
-            Map<String, Object> result = cardanoService.submitTransaction(signedTxHex);
-            return ResponseEntity.ok(result);
+            TxSubmission submission = txSubmissionService.enqueue(signedTxHex);
+            return ResponseEntity.accepted().body(submissionBody(submission));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid transaction", "error", e.getMessage()));
         } catch (Exception e) {
-            System.err.println("Transaction Submission Error: " + e.getMessage());
+            log.error("Queueing transaction failed", e);
             return ResponseEntity.status(500)
-                    .body(Map.of("message", "Failed to submit transaction", "error", e.getMessage()));
+                    .body(Map.of("message", "Failed to queue transaction", "error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    // GET /api/cardano/submit-tx/{txHash} - pending | submitted | failed | confirmed
+    @GetMapping("/submit-tx/{txHash}")
+    public ResponseEntity<?> getSubmission(@PathVariable String txHash) {
+        return txSubmissionService.find(txHash)
+                .<ResponseEntity<?>>map(submission -> ResponseEntity.ok(submissionBody(submission)))
+                .orElseGet(() -> ResponseEntity.status(404).body(Map.of("message", "Unknown transaction.")));
+    }
+
+    private static Map<String, Object> submissionBody(TxSubmission submission) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("txHash", submission.getTxHash());
+        response.put("status", submission.getStatus().name().toLowerCase());
+        response.put("attempts", submission.getAttempts());
+        response.put("createdAt", submission.getCreatedAt());
+        if (submission.getStatus() == TxSubmissionStatus.PENDING) {
+            response.put("nextAttemptAt", submission.getNextAttemptAt());
+        }
+        if (submission.getSubmittedAt() != null) {
+            response.put("submittedAt", submission.getSubmittedAt());
+        }
+        if (submission.getConfirmedAt() != null) {
+            response.put("confirmedAt", submission.getConfirmedAt());
+        }
+        if (submission.getLastError() != null) {
+            response.put("lastError", submission.getLastError());
         }
+        return response;
     }
-}
\ No newline at end of file
+}
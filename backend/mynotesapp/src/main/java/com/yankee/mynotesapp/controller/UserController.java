@@ -2,7 +2,10 @@ package com.yankee.mynotesapp.controller;
 
 import com.yankee.mynotesapp.model.User;
 import com.yankee.mynotesapp.repository.UserRepository;
+import com.yankee.mynotesapp.service.UserCacheService;
 import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,9 +20,14 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class UserController {
 
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCacheService userCacheService;
+
     // DTO for linking wallet
     @Data
     public static class WalletLinkRequest {
@@ -41,10 +49,11 @@ public class UserController {
             return ResponseEntity.badRequest().body(response);
         }
 
-        // Log the action
-        System.out.println("LOG: Linking wallet for user: " + username + " -> " + wallet);
+        // Log the action (not the address itself)
+        log.info("Linking wallet for user {}", username);
 
-        Optional<User> userOptional = userRepository.findByUsername(username);
+        // Cached lookup; saving the entity updates the cached copy too
+        Optional<User> userOptional = userCacheService.findByUsername(username);
 
         if (userOptional.isPresent()) {
             User user = userOptional.get();
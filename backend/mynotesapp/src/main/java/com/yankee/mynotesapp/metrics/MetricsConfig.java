@@ -0,0 +1,113 @@
+package com.yankee.mynotesapp.metrics;
+
+import com.yankee.mynotesapp.cache.RefreshingCache;
+import com.yankee.mynotesapp.config.JwtUtil;
+import com.yankee.mynotesapp.ratelimit.AuthRateLimiter;
+import com.yankee.mynotesapp.ratelimit.TokenBucketLimiter;
+import com.yankee.mynotesapp.resilience.Bulkhead;
+import com.yankee.mynotesapp.resilience.CircuitBreaker;
+import com.yankee.mynotesapp.service.CardanoService;
+import com.yankee.mynotesapp.service.LoginService;
+import com.yankee.mynotesapp.service.WalletService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters the app already keeps (caches, pools, limiters, the
+ * Blockfrost breaker) to the meter registry. Everything is read lazily at
+ * scrape time; nothing here sits on a request path.
+ *
+ * Timers live next to what they time: auth.jwt.verify (JwtAuthFilter),
+ * auth.password.hash (TimedPasswordEncoder), blockfrost.requests
+ * (BlockfrostMetricsInterceptor). Repository, Hikari and Tomcat metrics come
+ * from Spring Boot's own auto-configuration, as do the Hibernate ones
+ * (hibernate.second.level.cache.requests/puts per region, among others).
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder blockfrostResilienceMetrics(CircuitBreaker blockfrostCircuitBreaker,
+            Bulkhead blockfrostBulkhead) {
+        return registry -> {
+            // 0 closed, 1 half-open, 2 open
+            Gauge.builder("blockfrost.circuit.state", blockfrostCircuitBreaker,
+                            b -> b.getState() == CircuitBreaker.State.OPEN ? 2
+                                    : b.getState() == CircuitBreaker.State.HALF_OPEN ? 1 : 0)
+                    .register(registry);
+            Gauge.builder("blockfrost.circuit.failure.rate", blockfrostCircuitBreaker, CircuitBreaker::getFailureRate)
+                    .register(registry);
+            counter(registry, "blockfrost.circuit.not.permitted", blockfrostCircuitBreaker,
+                    CircuitBreaker::getNotPermitted);
+            for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+                FunctionCounter.builder("blockfrost.circuit.transitions", blockfrostCircuitBreaker,
+                                b -> b.getTransitionsTo(state))
+                        .tag("to", state.name())
+                        .register(registry);
+            }
+            Gauge.builder("blockfrost.bulkhead.in.flight", blockfrostBulkhead, Bulkhead::getInFlight)
+                    .register(registry);
+            Gauge.builder("blockfrost.bulkhead.max", blockfrostBulkhead, Bulkhead::getMaxConcurrent)
+                    .register(registry);
+            counter(registry, "blockfrost.bulkhead.rejected", blockfrostBulkhead, Bulkhead::getRejected);
+        };
+    }
+
+    @Bean
+    public MeterBinder authMetrics(JwtUtil jwtUtil, LoginService loginService, AuthRateLimiter authRateLimiter) {
+        return registry -> {
+            FunctionCounter.builder("auth.jwt.cache", jwtUtil, JwtUtil::getCacheHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("auth.jwt.cache", jwtUtil, JwtUtil::getCacheMisses)
+                    .tag("result", "miss").register(registry);
+            Gauge.builder("auth.jwt.cache.size", jwtUtil, JwtUtil::getCacheSize).register(registry);
+
+            Gauge.builder("auth.login.queue.depth", loginService, LoginService::getQueueDepth).register(registry);
+            Gauge.builder("auth.login.active", loginService, LoginService::getActiveCount).register(registry);
+            counter(registry, "auth.login.rejected", loginService, LoginService::getRejected);
+            counter(registry, "auth.login.rehashed", loginService, LoginService::getRehashed);
+
+            limiter(registry, "ip", authRateLimiter.getByIp());
+            limiter(registry, "username", authRateLimiter.getByUsername());
+        };
+    }
+
+    @Bean
+    public MeterBinder cardanoMetrics(CardanoService cardanoService, WalletService walletService) {
+        return registry -> {
+            RefreshingCache<?, ?> cache = cardanoService.getUtxoCache();
+            FunctionCounter.builder("cardano.utxo.cache", cache, RefreshingCache::getHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("cardano.utxo.cache", cache, RefreshingCache::getStaleHits)
+                    .tag("result", "stale").register(registry);
+            FunctionCounter.builder("cardano.utxo.cache", cache, RefreshingCache::getMisses)
+                    .tag("result", "miss").register(registry);
+            counter(registry, "cardano.utxo.cache.loads", cache, RefreshingCache::getLoads);
+            counter(registry, "cardano.utxo.cache.load.failures", cache, RefreshingCache::getLoadFailures);
+            counter(registry, "cardano.utxo.cache.coalesced", cache, RefreshingCache::getCoalesced);
+            Gauge.builder("cardano.utxo.cache.size", cache, RefreshingCache::size).register(registry);
+
+            Gauge.builder("cardano.wallet.queue.depth", walletService, WalletService::getQueueDepth)
+                    .register(registry);
+            Gauge.builder("cardano.wallet.active", walletService, WalletService::getActiveCount)
+                    .register(registry);
+        };
+    }
+
+    private static void limiter(MeterRegistry registry, String key, TokenBucketLimiter limiter) {
+        FunctionCounter.builder("auth.rate.limit", limiter, TokenBucketLimiter::getAllowed)
+                .tags("key", key, "result", "allowed").register(registry);
+        FunctionCounter.builder("auth.rate.limit", limiter, TokenBucketLimiter::getRejected)
+                .tags("key", key, "result", "rejected").register(registry);
+    }
+
+    private static <T> void counter(MeterRegistry registry, String name, T source, ToDoubleFunction<T> count) {
+        FunctionCounter.builder(name, source, count).register(registry);
+    }
+}
@@ -1,15 +1,37 @@
 package com.yankee.mynotesapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.yankee.mynotesapp.config.HibernateCacheConfig;
+import com.yankee.mynotesapp.note.Note;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Data
+// Second-level cached by id and by username (see UserCacheService)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
+@NaturalIdCache(region = HibernateCacheConfig.USERS_BY_USERNAME)
+// Updates only write the changed columns, so a password rehash and a wallet link can't undo each other
+@DynamicUpdate
 public class User {
 
     @Id
@@ -17,6 +39,7 @@ public class User {
     private Long id;
 
     // Your email (username)
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String username;
 
@@ -31,4 +54,14 @@ public class User {
     // ⬅️ CRITICAL FIX: NEW FIELD for Cardano/Secondary Wallet
     @Column(length = 100, nullable = true)
     private String secondaryWalletAddress;
-}
\ No newline at end of file
+
+    // Read-only side of Note.user, only used for the cached notes listing (NoteRepository.findAllOfUser).
+    // Hibernate drops a user's entry when one of their notes is created or deleted.
+    @OneToMany(mappedBy = "user")
+    @OrderBy("id")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_NOTES)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private List<Note> notes = new ArrayList<>();
+}
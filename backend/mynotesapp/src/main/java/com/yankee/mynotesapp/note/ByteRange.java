@@ -0,0 +1,47 @@
+package com.yankee.mynotesapp.note;
+
+import lombok.Value;
+
+/**
+ * A single HTTP byte range ("bytes=0-499", "bytes=500-", "bytes=-200").
+ * end is inclusive; null end means "to the end". A suffix range has a null
+ * start and needs the total size to be resolved.
+ */
+@Value
+public class ByteRange {
+    Long start;
+    Long end;
+    Long suffixLength;
+
+    // Null for absent, malformed or multi-range headers: callers then serve the whole content
+    public static ByteRange parse(String header) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                return suffix > 0 ? new ByteRange(null, null, suffix) : null;
+            }
+            long start = Long.parseLong(first);
+            Long end = last.isEmpty() ? null : Long.parseLong(last);
+            if (start < 0 || (end != null && end < start)) {
+                return null;
+            }
+            return new ByteRange(start, end, null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public boolean isSuffix() {
+        return suffixLength != null;
+    }
+}
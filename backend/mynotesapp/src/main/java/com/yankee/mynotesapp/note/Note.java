@@ -4,32 +4,110 @@ package com.yankee.mynotesapp.note;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import com.yankee.mynotesapp.config.HibernateCacheConfig;
 import com.yankee.mynotesapp.model.User;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "notes")
+// Keyset pagination walks notes by (user_id, id); sync reads changes by (user_id, change_seq)
+@Table(name = "notes", indexes = {
+        @Index(name = "idx_notes_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_notes_user_change_seq", columnList = "user_id, change_seq")
+})
+// Second-level cached; notes missing from the cache while a cached listing is
+// assembled are fetched 50 per query instead of one by one
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.NOTES)
+@BatchSize(size = 50)
 public class Note {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (a table on MySQL) instead of IDENTITY so Hibernate can
+    // hand out ids up front and send inserts as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_seq", allocationSize = Note.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
     private String title;
 
-    @Column(columnDefinition = "TEXT")
+    // Stored codec-marked and, above a size threshold, compressed (see NoteContentCodec)
+    @Convert(converter = NoteContentConverter.class)
+    @Column(name = "content_data", columnDefinition = "LONGBLOB")
     private String content;
 
+    // Pre-compression TEXT column. Only read as a fallback (see getContent) until
+    // NoteContentMigrator (or the next write of the note) has moved the row to content_data.
+    @JsonIgnore
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String legacyContent;
+
+    // Characters in content, kept so listings never need to read the content column
+    @Column(name = "content_length")
+    private Integer contentLength;
+
+    // UTF-8 bytes of the uncompressed content, so ranged reads of compressed
+    // notes resolve against a known size. Null on rows written before it existed.
+    @JsonIgnore
+    @Column(name = "content_bytes")
+    private Long contentBytes;
+
+    // Optimistic lock; existing rows start at 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Position of the note's last change in the user's change sequence
+    // (the collection version it was written at); drives /api/notes/sync
+    @ColumnDefault("0")
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
     // Link Note to User
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnore
     private User user;
-}
\ No newline at end of file
+
+    // Falls back to the legacy column on read only; Hibernate compares fields, so a
+    // loaded legacy note stays clean and is not rewritten (or re-versioned) on flush
+    public String getContent() {
+        return content != null ? content : legacyContent;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void beforeWrite() {
+        // A legacy note written for another reason moves its content over on the way
+        if (content == null) {
+            content = legacyContent;
+        }
+        contentLength = content == null ? 0 : content.length();
+        contentBytes = content == null ? 0 : NoteContentCodec.utf8Length(content);
+        legacyContent = null;
+    }
+}
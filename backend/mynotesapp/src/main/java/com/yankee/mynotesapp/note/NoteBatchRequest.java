@@ -0,0 +1,25 @@
+package com.yankee.mynotesapp.note;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class NoteBatchRequest {
+
+    private List<Operation> operations = new ArrayList<>();
+
+    @Data
+    public static class Operation {
+        // "create", "update" or "delete"
+        private String op;
+        // Target note (update / delete)
+        private Long id;
+        // Optional client-side reference, echoed back so creates can be matched up
+        private String clientId;
+        // Null fields are left unchanged on update
+        private String title;
+        private String content;
+    }
+}
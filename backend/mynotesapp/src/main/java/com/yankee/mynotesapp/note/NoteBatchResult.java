@@ -0,0 +1,19 @@
+package com.yankee.mynotesapp.note;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of one operation in a batch, in request order
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteBatchResult {
+    private int index;
+    private String op;
+    // HTTP-style status for this item (201, 200, 204, 400, 404)
+    private int status;
+    private Long id;
+    private String clientId;
+    private String message;
+}
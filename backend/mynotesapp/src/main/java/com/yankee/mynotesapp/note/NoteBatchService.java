@@ -0,0 +1,138 @@
+package com.yankee.mynotesapp.note;
+
+import com.yankee.mynotesapp.model.User;
+import com.yankee.mynotesapp.repository.NoteRepository;
+import com.yankee.mynotesapp.repository.NoteTombstoneRepository;
+import com.yankee.mynotesapp.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of note creates / updates / deletes in one transaction.
+ *
+ * Every targeted note is loaded with a single query; inserts, updates and
+ * deletes are flushed as JDBC batches at commit (see hibernate.jdbc.batch_size).
+ * Items that fail validation or ownership
+ * get their own status; they do not abort the rest of the batch.
+ */
+@Service
+public class NoteBatchService {
+
+    public static final int MAX_OPERATIONS = 500;
+
+    private final NoteRepository noteRepository;
+    private final UserRepository userRepository;
+    private final NoteTombstoneRepository noteTombstoneRepository;
+    private final NoteVersionService noteVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NoteBatchService(NoteRepository noteRepository, UserRepository userRepository,
+            NoteTombstoneRepository noteTombstoneRepository, NoteVersionService noteVersionService,
+            ApplicationEventPublisher eventPublisher) {
+        this.noteRepository = noteRepository;
+        this.userRepository = userRepository;
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.noteVersionService = noteVersionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public List<NoteBatchResult> apply(Long userId, List<NoteBatchRequest.Operation> operations) {
+        User user = userRepository.getReferenceById(userId);
+
+        // One query for every note the batch touches; notes of other users simply aren't found
+        Set<Long> targetIds = operations.stream()
+                .map(NoteBatchRequest.Operation::getId)
+                .filter(id -> id != null)
+                .collect(Collectors.toSet());
+        Map<Long, Note> owned = targetIds.isEmpty()
+                ? Map.of()
+                : noteRepository.findByUserIdAndIdIn(userId, targetIds).stream()
+                        .collect(Collectors.toMap(Note::getId, Function.identity()));
+
+        // One sequence number per operation, reserved up front (unused ones just leave gaps)
+        long lastSeq = noteVersionService.reserve(userId, operations.size());
+        long firstSeq = lastSeq - operations.size() + 1;
+
+        List<NoteBatchResult> results = new ArrayList<>(operations.size());
+        List<Note> toDelete = new ArrayList<>();
+        List<NoteTombstone> tombstones = new ArrayList<>();
+        Instant now = Instant.now();
+        Set<Long> deleted = new HashSet<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            NoteBatchRequest.Operation op = operations.get(i);
+            long seq = firstSeq + i;
+            String kind = op.getOp() == null ? "" : op.getOp().trim().toLowerCase();
+
+            switch (kind) {
+                case "create" -> {
+                    if (op.getTitle() == null) {
+                        results.add(result(i, op, 400, null, "Title is required"));
+                        continue;
+                    }
+                    Note note = new Note();
+                    note.setTitle(op.getTitle());
+                    note.setContent(op.getContent());
+                    note.setUser(user);
+                    note.setChangeSeq(seq);
+                    // Sequence ids are assigned on persist, so the id is known before the flush
+                    noteRepository.save(note);
+                    eventPublisher.publishEvent(NoteChangedEvent.saved(note));
+                    results.add(result(i, op, 201, note.getId(), null));
+                }
+                case "update" -> {
+                    Note note = op.getId() == null || deleted.contains(op.getId()) ? null : owned.get(op.getId());
+                    if (note == null) {
+                        results.add(result(i, op, 404, op.getId(), "Note not found"));
+                        continue;
+                    }
+                    if (op.getTitle() != null) {
+                        note.setTitle(op.getTitle());
+                    }
+                    if (op.getContent() != null) {
+                        note.setContent(op.getContent());
+                    }
+                    note.setChangeSeq(seq);
+                    eventPublisher.publishEvent(
+                            new NoteChangedEvent(userId, note.getId(), op.getTitle(), op.getContent(), false));
+                    results.add(result(i, op, 200, note.getId(), null));
+                }
+                case "delete" -> {
+                    Note note = op.getId() == null || deleted.contains(op.getId()) ? null : owned.get(op.getId());
+                    if (note == null) {
+                        results.add(result(i, op, 404, op.getId(), "Note not found"));
+                        continue;
+                    }
+                    deleted.add(note.getId());
+                    toDelete.add(note);
+                    tombstones.add(new NoteTombstone(null, note.getId(), userId, seq, now));
+                    eventPublisher.publishEvent(NoteChangedEvent.deleted(userId, note.getId()));
+                    results.add(result(i, op, 204, note.getId(), null));
+                }
+                default -> results.add(result(i, op, 400, op.getId(), "Unknown op: " + op.getOp()));
+            }
+        }
+
+        // Removes managed entities, so a note updated earlier in the batch is simply deleted
+        noteRepository.deleteAll(toDelete);
+        noteTombstoneRepository.saveAll(tombstones);
+
+        return results;
+    }
+
+    private static NoteBatchResult result(int index, NoteBatchRequest.Operation op, int status, Long id,
+            String message) {
+        return new NoteBatchResult(index, op.getOp(), status, id, op.getClientId(), message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.yankee.mynotesapp.note;
+
+import lombok.Value;
+
+/**
+ * Published after a note is created, updated or deleted. For updates a null
+ * title or content means that field did not change.
+ */
+@Value
+public class NoteChangedEvent {
+    Long userId;
+    Long noteId;
+    String title;
+    String content;
+    boolean deleted;
+
+    public static NoteChangedEvent saved(Note note) {
+        return new NoteChangedEvent(note.getUser().getId(), note.getId(), note.getTitle(), note.getContent(), false);
+    }
+
+    public static NoteChangedEvent deleted(Long userId, Long noteId) {
+        return new NoteChangedEvent(userId, noteId, null, null, true);
+    }
+}
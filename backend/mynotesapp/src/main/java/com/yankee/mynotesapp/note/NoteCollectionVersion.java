@@ -0,0 +1,26 @@
+package com.yankee.mynotesapp.note;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-user counter bumped on every note write; backs the notes list ETag.
+// Kept out of the users table so note writes never touch (or lock) user rows.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "note_collection_versions")
+public class NoteCollectionVersion {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+}
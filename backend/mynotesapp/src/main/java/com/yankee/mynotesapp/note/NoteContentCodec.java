@@ -0,0 +1,158 @@
+package com.yankee.mynotesapp.note;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Storage format of note content: one codec marker byte followed by the
+ * payload. RAW is plain UTF-8; DEFLATE is zlib-compressed UTF-8. Content
+ * below the size threshold, or that doesn't shrink, is stored RAW. Because
+ * every value says how it was written, the threshold, level or on/off switch
+ * can change at any time without rewriting old rows.
+ */
+@Component
+public class NoteContentCodec {
+
+    public static final byte RAW = 0;
+    public static final byte DEFLATE = 1;
+
+    private final boolean enabled;
+    private final int minBytes;
+    private final int level;
+
+    public NoteContentCodec() {
+        this(true, 1024, Deflater.BEST_SPEED);
+    }
+
+    @Autowired
+    public NoteContentCodec(
+            @Value("${notes.content.compression.enabled:true}") boolean enabled,
+            @Value("${notes.content.compression.min-bytes:1024}") int minBytes,
+            @Value("${notes.content.compression.level:1}") int level) {
+        this.enabled = enabled;
+        this.minBytes = minBytes;
+        this.level = level;
+    }
+
+    public byte[] encode(String content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+        if (enabled && utf8.length >= minBytes) {
+            byte[] compressed = deflate(utf8);
+            if (compressed.length < utf8.length) {
+                return compressed;
+            }
+        }
+        byte[] raw = new byte[utf8.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(utf8, 0, raw, 1, utf8.length);
+        return raw;
+    }
+
+    public String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            return "";
+        }
+        return switch (stored[0]) {
+            case RAW -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE -> new String(inflate(stored), StandardCharsets.UTF_8);
+            default -> throw new IllegalStateException("Unknown note content codec: " + stored[0]);
+        };
+    }
+
+    /**
+     * Size of the content in UTF-8, counted without encoding it. Unpaired
+     * surrogates count as one byte, as String.getBytes replaces them with '?'.
+     */
+    public static long utf8Length(String content) {
+        long bytes = 0;
+        int n = content.length();
+        for (int i = 0; i < n; i++) {
+            char c = content.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(content.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * UTF-8 bytes of the content as a stream, given the stored bytes as a
+     * stream (marker first). Lets callers read part of a note without
+     * building the whole string.
+     */
+    public InputStream decodeStream(InputStream stored) throws IOException {
+        int marker = stored.read();
+        if (marker < 0) {
+            return InputStream.nullInputStream();
+        }
+        return switch (marker) {
+            case RAW -> stored;
+            case DEFLATE -> new InflaterInputStream(stored);
+            default -> throw new IllegalStateException("Unknown note content codec: " + marker);
+        };
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            out.write(DEFLATE);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] stored) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated note content");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt note content", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.yankee.mynotesapp.note;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// Maps Note.content to the codec-marked (optionally compressed) content_data column
+@Converter
+public class NoteContentConverter implements AttributeConverter<String, byte[]> {
+
+    private final NoteContentCodec codec;
+
+    // Used when Hibernate instantiates the converter itself (outside Spring)
+    public NoteContentConverter() {
+        this(new NoteContentCodec());
+    }
+
+    @Autowired
+    public NoteContentConverter(NoteContentCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] convertToDatabaseColumn(String content) {
+        return codec.encode(content);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        return codec.decode(stored);
+    }
+}
@@ -0,0 +1,131 @@
+package com.yankee.mynotesapp.note;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves rows from the old TEXT content column into the encoded content_data
+ * column, in keyset-ordered chunks on a background thread. Only one chunk is
+ * in memory at a time. Rows the application rewrote in the meantime already
+ * have content_data and are left alone. The writes bypass Hibernate, so each
+ * chunk's notes are evicted from the second-level cache by hand. A second
+ * pass fills content_bytes for rows encoded before that column existed.
+ */
+@Component
+public class NoteContentMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteContentMigrator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NoteContentCodec codec;
+    private final Cache secondLevelCache;
+    private final boolean enabled;
+    private final int chunkSize;
+
+    public NoteContentMigrator(JdbcTemplate jdbcTemplate, NoteContentCodec codec,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${notes.content.migration.enabled:true}") boolean enabled,
+            @Value("${notes.content.migration.chunk-size:200}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+        this.secondLevelCache = entityManagerFactory.getCache();
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::migrate, "note-content-migrator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Returns the number of rows migrated
+    public long migrate() {
+        long lastId = 0;
+        long migrated = 0;
+        while (true) {
+            List<Object[]> chunk = new ArrayList<>(chunkSize);
+            jdbcTemplate.query(
+                    "SELECT id, content FROM notes WHERE id > ? AND content IS NOT NULL AND content_data IS NULL "
+                            + "ORDER BY id LIMIT ?",
+                    rs -> {
+                        String content = rs.getString(2);
+                        chunk.add(new Object[] { codec.encode(content), content.length(),
+                                NoteContentCodec.utf8Length(content), rs.getLong(1) });
+                    },
+                    lastId, chunkSize);
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            jdbcTemplate.batchUpdate(
+                    "UPDATE notes SET content_data = ?, content_length = ?, content_bytes = ?, content = NULL "
+                            + "WHERE id = ? AND content_data IS NULL",
+                    chunk);
+            for (Object[] row : chunk) {
+                secondLevelCache.evict(Note.class, row[3]);
+            }
+            migrated += chunk.size();
+            lastId = (Long) chunk.get(chunk.size() - 1)[3];
+        }
+        if (migrated > 0) {
+            log.info("Migrated {} notes to encoded content storage", migrated);
+        }
+        long sized = backfillContentBytes();
+        if (sized > 0) {
+            log.info("Recorded the content size of {} encoded notes", sized);
+        }
+        return migrated;
+    }
+
+    // Returns the number of rows given a content_bytes value
+    long backfillContentBytes() {
+        long lastId = 0;
+        long sized = 0;
+        while (true) {
+            List<Object[]> chunk = new ArrayList<>(chunkSize);
+            jdbcTemplate.query(
+                    "SELECT id, content_data FROM notes WHERE id > ? AND content_data IS NOT NULL "
+                            + "AND content_bytes IS NULL ORDER BY id LIMIT ?",
+                    rs -> {
+                        try (InputStream content = codec.decodeStream(rs.getBinaryStream(2))) {
+                            chunk.add(new Object[] { content.transferTo(OutputStream.nullOutputStream()),
+                                    rs.getLong(1) });
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    },
+                    lastId, chunkSize);
+            if (chunk.isEmpty()) {
+                return sized;
+            }
+
+            // A write since the read has set the column already
+            jdbcTemplate.batchUpdate("UPDATE notes SET content_bytes = ? WHERE id = ? AND content_bytes IS NULL",
+                    chunk);
+            for (Object[] row : chunk) {
+                secondLevelCache.evict(Note.class, row[1]);
+            }
+            sized += chunk.size();
+            lastId = (Long) chunk.get(chunk.size() - 1)[1];
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.yankee.mynotesapp.note;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads byte ranges of a note's UTF-8 content without building the content
+ * string.
+ *
+ * RAW rows (and rows still in the legacy TEXT column) are sliced with
+ * SUBSTRING in the database, so only the requested bytes cross the wire, in
+ * CHUNK_BYTES pieces. DEFLATE rows are inflated as a stream and the bytes
+ * before the range are skipped. The decoded size comes from content_bytes;
+ * rows NoteContentMigrator hasn't sized yet are inflated once to count it.
+ */
+@Service
+public class NoteContentService {
+
+    static final int CHUNK_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NoteContentCodec codec;
+
+    public NoteContentService(JdbcTemplate jdbcTemplate, NoteContentCodec codec) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.codec = codec;
+    }
+
+    // How a note's content is stored; empty if the note doesn't exist for this user
+    public Optional<StoredContent> describe(Long userId, Long noteId) {
+        List<StoredContent> rows = jdbcTemplate.query(
+                "SELECT SUBSTRING(content_data, 1, 1), LENGTH(content_data), OCTET_LENGTH(content), content_bytes "
+                        + "FROM notes WHERE id = ? AND user_id = ?",
+                (rs, rowNum) -> {
+                    byte[] marker = rs.getBytes(1);
+                    long storedLength = rs.getLong(2);
+                    long legacyLength = rs.getLong(3);
+                    long contentBytes = rs.getLong(4);
+                    boolean sized = !rs.wasNull();
+                    if (marker == null || marker.length != 1) {
+                        // Not migrated yet (or no content at all)
+                        return new StoredContent(noteId, StoredContent.LEGACY, legacyLength);
+                    }
+                    if (sized) {
+                        return new StoredContent(noteId, marker[0], contentBytes);
+                    }
+                    return new StoredContent(noteId, marker[0],
+                            marker[0] == NoteContentCodec.RAW ? storedLength - 1 : -1);
+                },
+                noteId, userId);
+        return rows.stream().findFirst().map(stored -> stored.getTotalBytes() >= 0 ? stored
+                : new StoredContent(noteId, stored.getCodec(), inflatedSize(noteId)));
+    }
+
+    /**
+     * Copies up to `length` bytes starting at `offset` (length < 0 means to the
+     * end). Returns the number of bytes written.
+     */
+    public long copyRange(StoredContent stored, long offset, long length, OutputStream out) {
+        if (stored.getCodec() == NoteContentCodec.DEFLATE) {
+            return copyInflated(stored.getNoteId(), offset, length, out);
+        }
+
+        // SUBSTRING is 1-based; RAW payload starts after the marker byte
+        String column = stored.getCodec() == StoredContent.LEGACY ? "CAST(content AS BINARY)" : "content_data";
+        long start = offset + (stored.getCodec() == StoredContent.LEGACY ? 1 : 2);
+        long remaining = length < 0 ? Long.MAX_VALUE : length;
+        long written = 0;
+
+        while (remaining > 0) {
+            int chunk = (int) Math.min(CHUNK_BYTES, remaining);
+            byte[] bytes = jdbcTemplate.queryForObject(
+                    "SELECT SUBSTRING(" + column + ", ?, ?) FROM notes WHERE id = ?",
+                    byte[].class, start + written, chunk, stored.getNoteId());
+            if (bytes == null || bytes.length == 0) {
+                break;
+            }
+            write(out, bytes, bytes.length);
+            written += bytes.length;
+            remaining -= bytes.length;
+            if (bytes.length < chunk) {
+                break;
+            }
+        }
+        return written;
+    }
+
+    private long copyInflated(Long noteId, long offset, long length, OutputStream out) {
+        Long written = jdbcTemplate.query(
+                "SELECT content_data FROM notes WHERE id = ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return 0L;
+                    }
+                    try (InputStream content = codec.decodeStream(rs.getBinaryStream(1))) {
+                        content.skipNBytes(offset);
+                        long remaining = length < 0 ? Long.MAX_VALUE : length;
+                        long count = 0;
+                        byte[] buffer = new byte[8192];
+                        int n;
+                        while (remaining > 0
+                                && (n = content.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
+                            write(out, buffer, n);
+                            count += n;
+                            remaining -= n;
+                        }
+                        return count;
+                    } catch (EOFException e) {
+                        // Offset past the end: nothing to send
+                        return 0L;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                noteId);
+        return written != null ? written : 0;
+    }
+
+    private long inflatedSize(Long noteId) {
+        Long size = jdbcTemplate.query(
+                "SELECT content_data FROM notes WHERE id = ?",
+                rs -> {
+                    if (!rs.next()) {
+                        return 0L;
+                    }
+                    try (InputStream content = codec.decodeStream(rs.getBinaryStream(1))) {
+                        return content.transferTo(OutputStream.nullOutputStream());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                noteId);
+        return size != null ? size : 0;
+    }
+
+    private static void write(OutputStream out, byte[] bytes, int length) {
+        try {
+            out.write(bytes, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,91 +1,281 @@
 package com.yankee.mynotesapp.note;
 
-import com.yankee.mynotesapp.model.User;
+import com.yankee.mynotesapp.config.CurrentUser;
 import com.yankee.mynotesapp.repository.NoteRepository;
-import com.yankee.mynotesapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/notes")
 public class NoteController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    // Ranked search keeps (page + 1) * size hits in memory, so deep pages are cut off
+    private static final int MAX_SEARCH_PAGE = 50;
+
     @Autowired
     private NoteRepository noteRepository;
 
     @Autowired
-    private UserRepository userRepository;
-
-    // Helper to get the current authenticated user from the JWT
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String username = auth.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    private NoteExportService noteExportService;
+
+    @Autowired
+    private NoteBatchService noteBatchService;
+
+    @Autowired
+    private NoteSearchService noteSearchService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteVersionService noteVersionService;
+
+    @Autowired
+    private NoteSyncService noteSyncService;
+
+    @Autowired
+    private NoteContentService noteContentService;
+
+    // Helper to get the current user's id from the JWT (no database lookup)
+    private Long getCurrentUserId() {
+        return CurrentUser.id();
     }
 
     // GET /api/notes - Retrieve all notes for the authenticated user
+    // Answers If-None-Match with 304 from the collection version alone, without loading notes.
+    // ?content=false returns summaries and never reads the content column; full notes come
+    // from the second-level cache when the user's listing is cached.
     @GetMapping
-    public List<Note> getAllNotes() {
-        User user = getCurrentUser();
-        return noteRepository.findByUserId(user.getId());
+    public ResponseEntity<List<?>> getAllNotes(
+            @RequestParam(name = "content", defaultValue = "true") boolean includeContent,
+            WebRequest webRequest) {
+        Long userId = getCurrentUserId();
+        String etag = NoteEtags.forCollection(userId, noteVersionService.current(userId));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<?> notes = includeContent
+                ? noteRepository.findAllOfUser(userId)
+                : noteRepository.findSummariesByUserId(userId);
+        return ResponseEntity.ok().eTag(etag).body(notes);
     }
 
-    // ⬅️ CRITICAL FIX: Use NoteRequest DTO for creation
-    @PostMapping
-    public Note createNote(@RequestBody NoteRequest noteRequest) {
-        User user = getCurrentUser();
+    // GET /api/notes/page?cursor=&limit= - Keyset-paginated summaries (no content)
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getNotePage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+            WebRequest webRequest) {
+        Long userId = getCurrentUserId();
+        String etag = NoteEtags.forCollection(userId, noteVersionService.current(userId));
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = cursor != null ? cursor : 0L;
+
+        List<NoteSummary> items = noteRepository.findSummariesAfter(
+                userId, afterId, PageRequest.of(0, pageSize));
 
-        // 1. Create a new Note entity
-        Note note = new Note();
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", items);
+        // A full page means there may be more; the client passes this back as ?cursor=
+        response.put("nextCursor", items.size() == pageSize ? items.get(items.size() - 1).getId() : null);
+        return ResponseEntity.ok().eTag(etag).body(response);
+    }
+
+    // GET /api/notes/sync?cursor=&limit= - Changes (updated notes + deleted ids) since the cursor
+    @GetMapping("/sync")
+    public Map<String, Object> syncNotes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return noteSyncService.changesSince(getCurrentUserId(), cursor, pageSize);
+    }
 
-        // 2. Map fields from the DTO
-        note.setTitle(noteRequest.getTitle());
-        note.setContent(noteRequest.getContent());
+    // GET /api/notes/search?q=&page=&size= - Ranked full-text search over titles and content
+    // Answers 503 until the startup index rebuild is done rather than return partial results
+    @GetMapping("/search")
+    public ResponseEntity<?> searchNotes(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (!noteSearchService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("message", "Search index is still being built, please retry"));
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, Math.min(page, MAX_SEARCH_PAGE));
+        return ResponseEntity.ok(noteSearchService.search(getCurrentUserId(), query, pageNumber, pageSize));
+    }
+
+    // GET /api/notes/export?gzip= - Stream every note as NDJSON (optionally gzipped)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(@RequestParam(defaultValue = "false") boolean gzip) {
+        // Resolve the user on the request thread; the body is written on another thread
+        Long userId = getCurrentUserId();
 
-        // 3. Set the authenticated User object
-        note.setUser(user);
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192)) {
+                    noteExportService.exportTo(userId, gzipOut);
+                }
+            } else {
+                noteExportService.exportTo(userId, out);
+            }
+        };
 
-        return noteRepository.save(note);
+        // gzip is a file download (.ndjson.gz), not a transfer encoding the browser would undo
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"notes.ndjson" + (gzip ? ".gz" : "") + "\"")
+                .body(body);
+    }
+
+    // GET /api/notes/{id} - Full note, including content
+    @GetMapping("/{id}")
+    public ResponseEntity<Note> getNote(@PathVariable Long id, WebRequest webRequest) {
+        Long userId = getCurrentUserId();
+
+        // Served from the second-level cache when present, so a 304 costs no SQL either
+        Optional<Note> found = noteService.findOwned(userId, id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Note note = found.get();
+        if (webRequest.checkNotModified(NoteEtags.forNote(note))) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(NoteEtags.forNote(note)).body(note);
+    }
+
+    // GET /api/notes/{id}/meta - Everything but the content
+    @GetMapping("/{id}/meta")
+    public ResponseEntity<NoteSummary> getNoteMeta(@PathVariable Long id) {
+        return noteRepository.findSummaryByIdAndUserId(id, getCurrentUserId())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // GET /api/notes/{id}/content - Raw UTF-8 content; honours Range: bytes=... and ?offset=&length=
+    @GetMapping("/{id}/content")
+    public ResponseEntity<?> getNoteContent(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestParam(required = false) Long offset,
+            @RequestParam(required = false) Long length) {
+        if ((offset != null && offset < 0) || (length != null && length < 0)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "offset and length must not be negative"));
+        }
+        Optional<StoredContent> found = noteContentService.describe(getCurrentUserId(), id);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        StoredContent stored = found.get();
+        long total = stored.getTotalBytes();
+
+        ByteRange range = offset != null
+                ? new ByteRange(offset,
+                        length != null && length > 0 ? offset + Math.min(length, Long.MAX_VALUE - offset) - 1 : null,
+                        null)
+                : ByteRange.parse(rangeHeader);
+
+        MediaType textUtf8 = new MediaType("text", "plain", StandardCharsets.UTF_8);
+        if (range == null) {
+            return ResponseEntity.ok()
+                    .contentType(textUtf8)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .body((StreamingResponseBody) out -> noteContentService.copyRange(stored, 0, -1, out));
+        }
+
+        long start = range.isSuffix() ? Math.max(0, total - range.getSuffixLength()) : range.getStart();
+        if (start >= total) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + total).build();
+        }
+        long end = range.getEnd() == null ? total - 1 : Math.min(range.getEnd(), total - 1);
+
+        long rangeLength = end - start + 1;
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .contentType(textUtf8)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + total)
+                .contentLength(rangeLength)
+                .body((StreamingResponseBody) out -> noteContentService.copyRange(stored, start, rangeLength, out));
+    }
+
+    // ⬅️ CRITICAL FIX: Use NoteRequest DTO for creation
+    @PostMapping
+    public ResponseEntity<Note> createNote(@RequestBody NoteRequest noteRequest) {
+        Note saved = noteService.create(getCurrentUserId(), noteRequest.getTitle(), noteRequest.getContent());
+        return ResponseEntity.ok().eTag(NoteEtags.forNote(saved)).body(saved);
+    }
+
+    // POST /api/notes/batch - Apply many creates / updates / deletes in one transaction
+    @PostMapping("/batch")
+    public ResponseEntity<?> applyBatch(@RequestBody NoteBatchRequest request) {
+        List<NoteBatchRequest.Operation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "No operations given"));
+        }
+        if (operations.size() > NoteBatchService.MAX_OPERATIONS) {
+            return ResponseEntity.badRequest().body(
+                    Map.of("message", "At most " + NoteBatchService.MAX_OPERATIONS + " operations per batch"));
+        }
+
+        List<NoteBatchResult> results = noteBatchService.apply(getCurrentUserId(), operations);
+        return ResponseEntity.ok(Map.of("results", results));
     }
 
     // PUT /api/notes/{id} - Update an existing note
     // ⬅️ OPTIONAL FIX: For PUT, you should also use a DTO if possible, but keeping
     // NoteDetails here for consistency
+    // Send If-Match with the note's ETag to fail with 412 instead of overwriting someone else's edit.
+    // The note isn't re-read, so the new ETag is only returned when If-Match was sent.
     @PutMapping("/{id}")
-    public ResponseEntity<Note> updateNote(@PathVariable Long id, @RequestBody Note noteDetails) {
-        User currentUser = getCurrentUser();
+    public ResponseEntity<Map<String, Object>> updateNote(@PathVariable Long id, @RequestBody Note noteDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = NoteEtags.expectedVersion(ifMatch, id);
+        long version = noteService.update(getCurrentUserId(), id,
+                noteDetails.getTitle(), noteDetails.getContent(), expectedVersion);
 
-        return noteRepository.findById(id).<ResponseEntity<Note>>map(note -> {
-            // Security check: ensure note belongs to the user (comparing IDs is safe)
-            if (!note.getUser().getId().equals(currentUser.getId())) {
-                return ResponseEntity.status(403).build();
-            }
-
-            note.setTitle(noteDetails.getTitle());
-            note.setContent(noteDetails.getContent());
-            return ResponseEntity.ok(noteRepository.save(note));
-        }).orElse(ResponseEntity.notFound().build());
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", id);
+        response.put("version", version);
+        return ResponseEntity.ok().eTag(NoteEtags.forNote(id, version)).body(response);
     }
 
     // DELETE /api/notes/{id} - Delete a note
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNote(@PathVariable Long id) {
-        User currentUser = getCurrentUser();
-
-        return noteRepository.findById(id).<ResponseEntity<Void>>map(note -> {
-            // Security check: ensure note belongs to the user (comparing IDs is safe)
-            if (!note.getUser().getId().equals(currentUser.getId())) {
-                return ResponseEntity.status(403).build();
-            }
+        noteService.delete(getCurrentUserId(), id);
+        return ResponseEntity.ok().build();
+    }
 
-            noteRepository.delete(note);
-            return ResponseEntity.ok().<Void>build();
-        }).orElse(ResponseEntity.notFound().build());
+    // A concurrent update won the race between our read and our write
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLock(ObjectOptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body(Map.of("message", "Note was modified by another request"));
     }
-}
\ No newline at end of file
+}
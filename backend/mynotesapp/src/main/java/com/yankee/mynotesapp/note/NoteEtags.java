@@ -0,0 +1,47 @@
+package com.yankee.mynotesapp.note;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// ETag values for the notes API: one for a user's whole collection, one per note
+public final class NoteEtags {
+
+    private NoteEtags() {
+    }
+
+    public static String forCollection(Long userId, long version) {
+        return "\"u" + userId + "-v" + version + "\"";
+    }
+
+    public static String forNote(Note note) {
+        return forNote(note.getId(), note.getVersion());
+    }
+
+    public static String forNote(Long noteId, Long version) {
+        return "\"n" + noteId + "-v" + version + "\"";
+    }
+
+    /**
+     * Version the client expects from an If-Match header, or null when the
+     * header is absent or "*". Anything that isn't an ETag for this note fails
+     * the precondition.
+     */
+    public static Long expectedVersion(String ifMatch, Long noteId) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        String prefix = "\"n" + noteId + "-v";
+        if (value.startsWith(prefix) && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // fall through
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match this note");
+    }
+}
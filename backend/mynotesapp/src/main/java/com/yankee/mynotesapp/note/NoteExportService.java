@@ -0,0 +1,62 @@
+package com.yankee.mynotesapp.note;
+
+import com.yankee.mynotesapp.repository.NoteRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Writes every note of a user as NDJSON (one JSON object per line) as the
+ * rows stream in from the database. Each entity is detached once written, so
+ * neither the heap nor the persistence context grows with the number of notes.
+ */
+@Service
+public class NoteExportService {
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final NoteRepository noteRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public NoteExportService(NoteRepository noteRepository, EntityManager entityManager,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.noteRepository = noteRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    // Returns the number of notes written
+    public long exportTo(Long userId, OutputStream out) {
+        Long written = readOnlyTx.execute(status -> {
+            long count = 0;
+            try (Stream<Note> notes = noteRepository.streamByUserId(userId)) {
+                for (Note note : (Iterable<Note>) notes::iterator) {
+                    out.write(objectMapper.writeValueAsBytes(note));
+                    out.write('\n');
+                    entityManager.detach(note);
+
+                    if (++count % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                // Usually the client went away mid-download
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        return written != null ? written : 0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.yankee.mynotesapp.note;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Notes used to be IDENTITY-keyed. When the notes_seq table is first created
+ * it starts at 1, which would collide with existing rows, so on startup we
+ * move it past the current MAX(id).
+ *
+ * The pooled optimizer hands out (next_val - allocationSize, next_val], hence
+ * the target of MAX(id) + allocationSize.
+ *
+ * Runs once all singletons exist, which is before the web server starts, so
+ * no request can insert a note with a colliding id first.
+ */
+@Component
+public class NoteIdSequenceInitializer implements SmartInitializingSingleton {
+
+    private final EntityManager entityManager;
+
+    public NoteIdSequenceInitializer(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public void afterSingletonsInstantiated() {
+        Number maxId = (Number) entityManager
+                .createNativeQuery("SELECT COALESCE(MAX(id), 0) FROM notes")
+                .getSingleResult();
+        if (maxId.longValue() == 0) {
+            return;
+        }
+
+        long target = maxId.longValue() + Note.ID_ALLOCATION_SIZE;
+        entityManager.createNativeQuery("UPDATE notes_seq SET next_val = :target WHERE next_val < :target")
+                .setParameter("target", target)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,14 @@
+package com.yankee.mynotesapp.note;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchHit {
+    private Long id;
+    private String title;
+    private double score;
+}
@@ -0,0 +1,310 @@
+package com.yankee.mynotesapp.note;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of note titles and contents, partitioned per user.
+ *
+ * Each user has a sorted term dictionary (for prefix matching) pointing at
+ * postings of noteId -> term frequencies. Notes also remember their own terms
+ * per field so an update can swap one field without re-reading the other.
+ * Ranking is BM25 over a combined field where title hits count TITLE_BOOST
+ * times. Every user partition has its own read/write lock.
+ *
+ * Only the first maxContentChars of a note's content are indexed, which
+ * bounds what one note can cost; the index as a whole grows with the number
+ * of notes (roughly 150 bytes per distinct word per note).
+ */
+public class NoteSearchIndex {
+
+    static final int TITLE_BOOST = 3;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    static final double PREFIX_WEIGHT = 0.8;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_TOKEN = 2;
+    private static final int MAX_TOKEN = 40;
+
+    private final ConcurrentHashMap<Long, UserIndex> users = new ConcurrentHashMap<>();
+    private final int maxContentChars;
+
+    public NoteSearchIndex() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public NoteSearchIndex(int maxContentChars) {
+        this.maxContentChars = maxContentChars;
+    }
+
+    public void index(Long userId, Long noteId, String title, String content) {
+        UserIndex index = users.computeIfAbsent(userId, id -> new UserIndex());
+        if (content != null && content.length() > maxContentChars) {
+            content = content.substring(0, maxContentChars);
+        }
+        index.lock.writeLock().lock();
+        try {
+            index.put(noteId, title, content);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId, Long noteId) {
+        UserIndex index = users.get(userId);
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            index.remove(noteId);
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    public int size(Long userId) {
+        UserIndex index = users.get(userId);
+        if (index == null) {
+            return 0;
+        }
+        index.lock.readLock().lock();
+        try {
+            return index.docs.size();
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search. If the query does not end with whitespace, the last word
+     * is also matched as a prefix ("meet" finds "meeting").
+     */
+    public NoteSearchResult search(Long userId, String query, int page, int size) {
+        List<String> terms = tokenize(query);
+        UserIndex index = users.get(userId);
+        if (terms.isEmpty() || index == null) {
+            return new NoteSearchResult(List.of(), 0, page, size);
+        }
+        boolean lastIsPrefix = !query.isEmpty() && !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        index.lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                if (lastIsPrefix && i == terms.size() - 1) {
+                    int expansions = 0;
+                    for (Map.Entry<String, Map<Long, int[]>> entry : index.prefixRange(term).entrySet()) {
+                        double weight = entry.getKey().equals(term) ? 1.0 : PREFIX_WEIGHT;
+                        index.score(entry.getValue(), weight, scores);
+                        if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                    }
+                } else {
+                    Map<Long, int[]> postings = index.terms.get(term);
+                    if (postings != null) {
+                        index.score(postings, 1.0, scores);
+                    }
+                }
+            }
+
+            List<NoteSearchHit> items = topHits(index, scores, page, size);
+            return new NoteSearchResult(items, scores.size(), page, size);
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    // Keeps only the best (page + 1) * size scores instead of sorting every match
+    private static List<NoteSearchHit> topHits(UserIndex index, Map<Long, Double> scores, int page, int size) {
+        long from = (long) page * size;
+        if (size <= 0 || from >= scores.size()) {
+            return List.of();
+        }
+        // Never more than the matches themselves, however deep the requested page
+        int keep = (int) Math.min(from + size, scores.size());
+        Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(keep + 1, byScore);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > keep) {
+                heap.poll();
+            }
+        }
+
+        List<Map.Entry<Long, Double>> best = new ArrayList<>(heap);
+        best.sort(byScore.reversed());
+
+        List<NoteSearchHit> hits = new ArrayList<>(best.size() - (int) from);
+        for (Map.Entry<Long, Double> entry : best.subList((int) from, best.size())) {
+            hits.add(new NoteSearchHit(entry.getKey(), index.docs.get(entry.getKey()).title, entry.getValue()));
+        }
+        return hits;
+    }
+
+    /**
+     * Lowercased words of at least two characters. Markup from the rich-text
+     * editor (tags and entities) is skipped.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '<') {
+                int end = text.indexOf('>', i);
+                if (end > 0) {
+                    flush(current, tokens);
+                    i = end + 1;
+                    continue;
+                }
+            } else if (c == '&') {
+                int end = text.indexOf(';', i);
+                if (end > 0 && end - i <= 8) {
+                    flush(current, tokens);
+                    i = end + 1;
+                    continue;
+                }
+            }
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else {
+                flush(current, tokens);
+            }
+            i++;
+        }
+        flush(current, tokens);
+        return tokens;
+    }
+
+    private static void flush(StringBuilder current, List<String> tokens) {
+        if (current.length() >= MIN_TOKEN && current.length() <= MAX_TOKEN) {
+            tokens.add(current.toString());
+        }
+        current.setLength(0);
+    }
+
+    private static Map<String, Integer> termCounts(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String token : tokenize(text)) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static int total(Map<String, Integer> counts) {
+        int sum = 0;
+        for (int count : counts.values()) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    // All index state for one user; guarded by its lock
+    private static final class UserIndex {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // term -> (noteId -> {titleTf, contentTf})
+        private final TreeMap<String, Map<Long, int[]>> terms = new TreeMap<>();
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private long totalLength;
+
+        // Null title / content keep the current value of that field
+        private void put(Long noteId, String title, String content) {
+            Doc previous = docs.get(noteId);
+            Map<String, Integer> titleTerms = title != null ? termCounts(title)
+                    : previous != null ? previous.titleTerms : Collections.emptyMap();
+            Map<String, Integer> contentTerms = content != null ? termCounts(content)
+                    : previous != null ? previous.contentTerms : Collections.emptyMap();
+            String newTitle = title != null ? title : previous != null ? previous.title : "";
+
+            if (previous != null) {
+                remove(noteId);
+            }
+
+            Doc doc = new Doc(newTitle, titleTerms, contentTerms,
+                    TITLE_BOOST * total(titleTerms) + total(contentTerms));
+            docs.put(noteId, doc);
+            totalLength += doc.length;
+
+            titleTerms.forEach((term, tf) -> posting(term, noteId)[0] = tf);
+            contentTerms.forEach((term, tf) -> posting(term, noteId)[1] = tf);
+        }
+
+        private int[] posting(String term, Long noteId) {
+            return terms.computeIfAbsent(term, t -> new HashMap<>())
+                    .computeIfAbsent(noteId, id -> new int[2]);
+        }
+
+        private void remove(Long noteId) {
+            Doc doc = docs.remove(noteId);
+            if (doc == null) {
+                return;
+            }
+            totalLength -= doc.length;
+            doc.titleTerms.keySet().forEach(term -> unpost(term, noteId));
+            doc.contentTerms.keySet().forEach(term -> unpost(term, noteId));
+        }
+
+        private void unpost(String term, Long noteId) {
+            Map<Long, int[]> postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(noteId);
+                if (postings.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+
+        private NavigableMap<String, Map<Long, int[]>> prefixRange(String prefix) {
+            return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        }
+
+        // BM25 contribution of one term's postings, added into scores
+        private void score(Map<Long, int[]> postings, double weight, Map<Long, Double> scores) {
+            int n = docs.size();
+            int df = postings.size();
+            double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            double avgLength = n == 0 ? 1 : Math.max(1.0, (double) totalLength / n);
+
+            for (Map.Entry<Long, int[]> entry : postings.entrySet()) {
+                int[] tf = entry.getValue();
+                double freq = TITLE_BOOST * tf[0] + tf[1];
+                double norm = K1 * (1 - B + B * docs.get(entry.getKey()).length / avgLength);
+                double score = weight * idf * (freq * (K1 + 1)) / (freq + norm);
+                scores.merge(entry.getKey(), score, Double::sum);
+            }
+        }
+    }
+
+    private static final class Doc {
+        private final String title;
+        private final Map<String, Integer> titleTerms;
+        private final Map<String, Integer> contentTerms;
+        private final int length;
+
+        private Doc(String title, Map<String, Integer> titleTerms, Map<String, Integer> contentTerms, int length) {
+            this.title = title;
+            this.titleTerms = titleTerms;
+            this.contentTerms = contentTerms;
+            this.length = length;
+        }
+    }
+}
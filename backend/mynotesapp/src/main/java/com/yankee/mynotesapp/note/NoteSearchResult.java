@@ -0,0 +1,18 @@
+package com.yankee.mynotesapp.note;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchResult {
+    private List<NoteSearchHit> items;
+    // Number of matching notes across all pages
+    private int total;
+    private int page;
+    private int size;
+}
@@ -0,0 +1,148 @@
+package com.yankee.mynotesapp.note;
+
+import com.yankee.mynotesapp.config.WorkerThreads;
+import com.yankee.mynotesapp.repository.NoteRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Keeps NoteSearchIndex in step with the database.
+ *
+ * Note changes arrive as NoteChangedEvents after their transaction commits.
+ * On startup the whole index is rebuilt in the background from a streaming
+ * query; changes that happen meanwhile are queued and replayed onto the new
+ * index before it replaces the live one. Until the first rebuild has finished
+ * the index is incomplete, so isReady() is false and the search endpoint
+ * answers 503.
+ */
+@Service
+public class NoteSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(NoteSearchService.class);
+
+    private final NoteRepository noteRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTx;
+    private final Environment environment;
+    private final boolean rebuildOnStartup;
+    private final int maxContentChars;
+
+    private volatile NoteSearchIndex index;
+    private volatile boolean ready;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Non-null while a rebuild is running; guarded by rebuildLock
+    private List<NoteChangedEvent> pending;
+
+    public NoteSearchService(NoteRepository noteRepository, EntityManager entityManager,
+            PlatformTransactionManager transactionManager, Environment environment,
+            @Value("${notes.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+            @Value("${notes.search.max-content-chars:20000}") int maxContentChars) {
+        this.noteRepository = noteRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.environment = environment;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.maxContentChars = maxContentChars;
+        this.index = new NoteSearchIndex(maxContentChars);
+    }
+
+    public NoteSearchResult search(Long userId, String query, int page, int size) {
+        return index.search(userId, query, page, size);
+    }
+
+    // False until the startup rebuild has finished (or if it failed); results would be incomplete
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteChanged(NoteChangedEvent event) {
+        rebuildLock.lock();
+        try {
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+        apply(index, event);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            ready = true;
+            return;
+        }
+        WorkerThreads.factory("note-search-rebuild-", environment).newThread(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Search index rebuild failed; search stays unavailable", e);
+            }
+        }).start();
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            rebuildLock.unlock();
+        }
+
+        NoteSearchIndex fresh = new NoteSearchIndex(maxContentChars);
+        try {
+            readOnlyTx.executeWithoutResult(status -> {
+                try (Stream<Note> notes = noteRepository.streamAll()) {
+                    notes.forEach(note -> {
+                        fresh.index(note.getUser().getId(), note.getId(), note.getTitle(), note.getContent());
+                        entityManager.detach(note);
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            rebuildLock.lock();
+            try {
+                pending = null;
+            } finally {
+                rebuildLock.unlock();
+            }
+            throw e;
+        }
+
+        rebuildLock.lock();
+        try {
+            pending.forEach(event -> apply(fresh, event));
+            pending = null;
+            index = fresh;
+            ready = true;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private static void apply(NoteSearchIndex target, NoteChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getUserId(), event.getNoteId());
+        } else {
+            target.index(event.getUserId(), event.getNoteId(), event.getTitle(), event.getContent());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.yankee.mynotesapp.note;
+
+import com.yankee.mynotesapp.repository.NoteRepository;
+import com.yankee.mynotesapp.repository.NoteTombstoneRepository;
+import com.yankee.mynotesapp.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Single-note writes. Each one runs in a transaction together with the bump
+ * of the user's collection version (which becomes the note's changeSeq, or
+ * the tombstone's for deletes), and publishes a NoteChangedEvent that
+ * listeners see after commit.
+ *
+ * Update and delete are single statements that only evict the affected
+ * note's second-level cache entries (see NoteRepositoryImpl).
+ */
+@Service
+public class NoteService {
+
+    private final NoteRepository noteRepository;
+    private final UserRepository userRepository;
+    private final NoteTombstoneRepository noteTombstoneRepository;
+    private final NoteVersionService noteVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NoteService(NoteRepository noteRepository, UserRepository userRepository,
+            NoteTombstoneRepository noteTombstoneRepository, NoteVersionService noteVersionService,
+            ApplicationEventPublisher eventPublisher) {
+        this.noteRepository = noteRepository;
+        this.userRepository = userRepository;
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.noteVersionService = noteVersionService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // By id, so a cached note needs no SQL; someone else's note is simply not found
+    @Transactional(readOnly = true)
+    public Optional<Note> findOwned(Long userId, Long id) {
+        return noteRepository.findById(id).filter(note -> note.getUser().getId().equals(userId));
+    }
+
+    @Transactional
+    public Note create(Long userId, String title, String content) {
+        Note note = new Note();
+        note.setTitle(title);
+        note.setContent(content);
+        // Reference only; the insert needs the foreign key, not the user row
+        note.setUser(userRepository.getReferenceById(userId));
+        note.setChangeSeq(noteVersionService.bump(userId));
+
+        // Flush so the response carries the generated version and timestamps
+        Note saved = noteRepository.saveAndFlush(note);
+        eventPublisher.publishEvent(NoteChangedEvent.saved(saved));
+        return saved;
+    }
+
+    /**
+     * One UPDATE scoped to id and owner; the note is never loaded. Null title or
+     * content leave that column as it is.
+     *
+     * @param expectedVersion version from If-Match, or null for last-writer-wins
+     * @return the note's new version
+     */
+    @Transactional
+    public long update(Long userId, Long id, String title, String content, Long expectedVersion) {
+        long seq = noteVersionService.bump(userId);
+        int updated = noteRepository.updateOwned(id, userId, title, content, expectedVersion, seq);
+        if (updated == 0) {
+            // Throwing rolls the bump back too. Only a stale If-Match needs the extra lookup
+            // to tell 412 from 404; someone else's note is simply not found.
+            if (expectedVersion != null && noteRepository.findVersionByIdAndUserId(id, userId).isPresent()) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Note was modified by another request");
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+
+        eventPublisher.publishEvent(new NoteChangedEvent(userId, id, title, content, false));
+        if (expectedVersion != null) {
+            return expectedVersion + 1;
+        }
+        // Last-writer-wins: read it back; our UPDATE holds the row lock, so no one else moved it since
+        return noteRepository.findVersionByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    @Transactional
+    public void delete(Long userId, Long id) {
+        long seq = noteVersionService.bump(userId);
+        if (noteRepository.deleteOwned(id, userId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+
+        noteTombstoneRepository.save(new NoteTombstone(null, id, userId, seq, Instant.now()));
+        eventPublisher.publishEvent(NoteChangedEvent.deleted(userId, id));
+    }
+}
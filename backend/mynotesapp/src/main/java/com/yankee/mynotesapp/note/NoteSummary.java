@@ -0,0 +1,20 @@
+package com.yankee.mynotesapp.note;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Lightweight listing row: everything about a note except its content
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSummary {
+    private Long id;
+    private String title;
+    // Content length in characters
+    private Integer length;
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.yankee.mynotesapp.note;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque sync position handed to clients: the last change sequence they have
+ * seen plus when the cursor was issued. The issue time tells us whether
+ * tombstones the client still needs may already have been compacted away.
+ */
+public final class NoteSyncCursor {
+
+    private final long seq;
+    private final long issuedAtMillis;
+
+    public NoteSyncCursor(long seq, long issuedAtMillis) {
+        this.seq = seq;
+        this.issuedAtMillis = issuedAtMillis;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+
+    public String encode() {
+        String raw = seq + ":" + issuedAtMillis;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static NoteSyncCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int colon = raw.indexOf(':');
+            return new NoteSyncCursor(Long.parseLong(raw.substring(0, colon)),
+                    Long.parseLong(raw.substring(colon + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync cursor");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.yankee.mynotesapp.note;
+
+import com.yankee.mynotesapp.repository.NoteRepository;
+import com.yankee.mynotesapp.repository.NoteTombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * "What changed since my cursor?" for multi-device clients.
+ *
+ * Every note write takes the next number of the user's change sequence (see
+ * NoteVersionService), stored on the note or, for deletes, on a tombstone.
+ * A sync page is the next `limit` changes by sequence, so steady-state sync
+ * costs scale with edits rather than with the size of the collection.
+ */
+@Service
+public class NoteSyncService {
+
+    // Cushion for deletes that were in flight when a cursor was issued
+    private static final Duration CURSOR_GRACE = Duration.ofMinutes(5);
+    // Notes written before change sequences existed keep the column default of 0
+    private static final long BEFORE_FIRST_SEQ = -1;
+
+    private final NoteRepository noteRepository;
+    private final NoteTombstoneRepository noteTombstoneRepository;
+    private final Duration tombstoneRetention;
+    private final LongSupplier clock;
+
+    @Autowired
+    public NoteSyncService(NoteRepository noteRepository, NoteTombstoneRepository noteTombstoneRepository,
+            @Value("${notes.sync.tombstone-retention-days:30}") long retentionDays) {
+        this(noteRepository, noteTombstoneRepository, retentionDays, System::currentTimeMillis);
+    }
+
+    NoteSyncService(NoteRepository noteRepository, NoteTombstoneRepository noteTombstoneRepository,
+            long retentionDays, LongSupplier clock) {
+        this.noteRepository = noteRepository;
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.tombstoneRetention = Duration.ofDays(retentionDays);
+        this.clock = clock;
+    }
+
+    public Duration getTombstoneRetention() {
+        return tombstoneRetention;
+    }
+
+    /**
+     * @param cursor cursor from the previous sync, or null for a full initial sync
+     * @throws ResponseStatusException 410 if the cursor predates tombstone retention
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> changesSince(Long userId, String cursor, int limit) {
+        long now = clock.getAsLong();
+        long sinceSeq = BEFORE_FIRST_SEQ;
+        long issuedAt = now;
+        if (cursor != null) {
+            NoteSyncCursor decoded = NoteSyncCursor.decode(cursor);
+            if (decoded.getIssuedAtMillis() < now - tombstoneRetention.toMillis() + CURSOR_GRACE.toMillis()) {
+                throw new ResponseStatusException(HttpStatus.GONE, "Sync cursor expired, full resync required");
+            }
+            sinceSeq = decoded.getSeq();
+            issuedAt = decoded.getIssuedAtMillis();
+        }
+
+        PageRequest page = PageRequest.of(0, limit);
+        List<Note> changed = noteRepository
+                .findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(userId, sinceSeq, page);
+        // An initial sync starts from nothing, so there are no deletes to report
+        List<NoteTombstone> removed = cursor == null ? List.of()
+                : noteTombstoneRepository.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(userId, sinceSeq, page);
+
+        // Merge both streams by sequence and keep the first `limit` changes
+        List<Note> updated = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long lastSeq = sinceSeq;
+        int n = 0;
+        int t = 0;
+        while (updated.size() + deleted.size() < limit && (n < changed.size() || t < removed.size())) {
+            boolean takeNote = t >= removed.size()
+                    || (n < changed.size() && changed.get(n).getChangeSeq() < removed.get(t).getChangeSeq());
+            if (takeNote) {
+                Note note = changed.get(n++);
+                updated.add(note);
+                lastSeq = note.getChangeSeq();
+            } else {
+                NoteTombstone tombstone = removed.get(t++);
+                deleted.add(tombstone.getNoteId());
+                lastSeq = tombstone.getChangeSeq();
+            }
+        }
+        boolean hasMore = n < changed.size() || t < removed.size()
+                || changed.size() == limit || removed.size() == limit;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("updated", updated);
+        response.put("deleted", deleted);
+        // Tombstones between the client's position and the end of the backlog were only
+        // safe from compaction as of the original cursor, so a mid-backlog cursor keeps its
+        // issue time; only a caught-up client gets a fresh one
+        response.put("cursor", new NoteSyncCursor(lastSeq, hasMore ? issuedAt : now).encode());
+        response.put("hasMore", hasMore);
+        return response;
+    }
+}
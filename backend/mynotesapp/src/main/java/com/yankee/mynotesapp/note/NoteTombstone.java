@@ -0,0 +1,38 @@
+package com.yankee.mynotesapp.note;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Left behind when a note is deleted so syncing clients learn about the delete.
+// Purged by NoteTombstoneCompactor once older than the retention window.
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "note_tombstones", indexes = {
+        @Index(name = "idx_note_tombstones_user_seq", columnList = "user_id, change_seq"),
+        @Index(name = "idx_note_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class NoteTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "note_tombstones_seq")
+    @SequenceGenerator(name = "note_tombstones_seq", sequenceName = "note_tombstones_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "note_id", nullable = false)
+    private Long noteId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+}
@@ -0,0 +1,28 @@
+package com.yankee.mynotesapp.note;
+
+import com.yankee.mynotesapp.repository.NoteTombstoneRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+// Purges tombstones older than the retention window; cursors that old get 410 from sync
+@Component
+public class NoteTombstoneCompactor {
+
+    private final NoteTombstoneRepository noteTombstoneRepository;
+    private final NoteSyncService noteSyncService;
+
+    public NoteTombstoneCompactor(NoteTombstoneRepository noteTombstoneRepository, NoteSyncService noteSyncService) {
+        this.noteTombstoneRepository = noteTombstoneRepository;
+        this.noteSyncService = noteSyncService;
+    }
+
+    @Scheduled(fixedDelayString = "${notes.sync.compaction-interval-ms:3600000}", initialDelay = 60_000)
+    @Transactional
+    public void compact() {
+        Instant cutoff = Instant.now().minus(noteSyncService.getTombstoneRetention());
+        noteTombstoneRepository.deleteOlderThan(cutoff);
+    }
+}
@@ -0,0 +1,51 @@
+package com.yankee.mynotesapp.note;
+
+import com.yankee.mynotesapp.repository.NoteCollectionVersionRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class NoteVersionService {
+
+    private final NoteCollectionVersionRepository versionRepository;
+    private final EntityManager entityManager;
+
+    public NoteVersionService(NoteCollectionVersionRepository versionRepository, EntityManager entityManager) {
+        this.versionRepository = versionRepository;
+        this.entityManager = entityManager;
+    }
+
+    public long current(Long userId) {
+        return versionRepository.findVersion(userId).orElse(0L);
+    }
+
+    // Must run inside the transaction that changes the notes, so the bump commits (or rolls back) with them
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long bump(Long userId) {
+        return reserve(userId, 1);
+    }
+
+    /**
+     * Advances the user's version by count and returns the new value; the
+     * caller owns the sequence numbers (result - count, result]. The counter
+     * row stays locked until commit, so sequence order is commit order.
+     *
+     * One upsert covers the user's first write too, so two concurrent first
+     * writes serialize on the row instead of racing to insert it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserve(Long userId, int count) {
+        entityManager.createNativeQuery("INSERT INTO note_collection_versions (user_id, version) "
+                        + "VALUES (:userId, :count) ON DUPLICATE KEY UPDATE version = version + :count")
+                .setParameter("userId", userId)
+                .setParameter("count", count)
+                .unwrap(NativeQuery.class)
+                // Only this table changed; without a space Hibernate would clear every cache region
+                .addSynchronizedEntityClass(NoteCollectionVersion.class)
+                .executeUpdate();
+        return current(userId);
+    }
+}
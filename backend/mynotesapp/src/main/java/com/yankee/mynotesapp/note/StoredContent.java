@@ -0,0 +1,16 @@
+package com.yankee.mynotesapp.note;
+
+import lombok.Value;
+
+// Storage facts about one note's content, as needed for ranged reads
+@Value
+public class StoredContent {
+
+    // Not a real codec marker: content still lives in the legacy TEXT column
+    public static final byte LEGACY = -1;
+
+    Long noteId;
+    byte codec;
+    // Size of the UTF-8 content in bytes
+    long totalBytes;
+}
@@ -0,0 +1,56 @@
+package com.yankee.mynotesapp.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles /api/auth calls twice: per client IP (one machine trying many
+ * accounts) and per username (many machines trying one account).
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byUsername;
+
+    public AuthRateLimiter(
+            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${auth.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${auth.rate-limit.ip.per-minute:20}") int ipPerMinute,
+            @Value("${auth.rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${auth.rate-limit.username.per-minute:5}") int usernamePerMinute,
+            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys) {
+        this.enabled = enabled;
+        this.byIp = new TokenBucketLimiter(ipCapacity, TimeUnit.MINUTES.toNanos(1) / ipPerMinute, maxKeys);
+        this.byUsername = new TokenBucketLimiter(usernameCapacity,
+                TimeUnit.MINUTES.toNanos(1) / usernamePerMinute, maxKeys);
+    }
+
+    /**
+     * @param username may be null when the body didn't carry one
+     * @return 0 if the call may proceed, otherwise the nanoseconds to wait
+     */
+    public long check(String clientIp, String username) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = byIp.tryAcquire(clientIp);
+        if (wait > 0 || username == null || username.isBlank()) {
+            return wait;
+        }
+        // Same normalisation as signup, so "Bob@x.com " and "bob@x.com" share a bucket
+        return byUsername.tryAcquire(username.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public TokenBucketLimiter getByIp() {
+        return byIp;
+    }
+
+    public TokenBucketLimiter getByUsername() {
+        return byUsername;
+    }
+}
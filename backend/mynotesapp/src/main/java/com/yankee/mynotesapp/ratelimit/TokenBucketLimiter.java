@@ -0,0 +1,98 @@
+package com.yankee.mynotesapp.ratelimit;
+
+import com.yankee.mynotesapp.cache.BoundedMapSweeper;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token buckets with lock-free state.
+ *
+ * Each key holds a single AtomicLong: the time at which its bucket will be
+ * full again (the "theoretical arrival time" of the GCRA formulation). Taking
+ * a token pushes that time forward by one refill interval with a CAS; the
+ * request is refused when it would end up more than capacity intervals ahead
+ * of now. A key whose time lies in the past has a full bucket and carries no
+ * information, so the sweep that keeps the map under maxKeys simply drops it.
+ */
+public class TokenBucketLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final BoundedMapSweeper<String, AtomicLong> sweeper;
+    private final LongSupplier clock;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param capacity      tokens available to a key that has been idle
+     * @param refillNanos   time to earn back one token
+     * @param maxKeys       bound on tracked keys
+     */
+    public TokenBucketLimiter(int capacity, long refillNanos, int maxKeys) {
+        this(capacity, refillNanos, maxKeys, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(int capacity, long refillNanos, int maxKeys, LongSupplier clock) {
+        if (capacity <= 0 || refillNanos <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, refillNanos and maxKeys must be positive");
+        }
+        this.intervalNanos = refillNanos;
+        this.burstNanos = capacity * refillNanos;
+        this.sweeper = new BoundedMapSweeper<>(buckets, maxKeys);
+        this.clock = clock;
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return 0 if the token was granted, otherwise the nanoseconds until one is available
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt == null) {
+            // Make room before inserting, so the sweep can't drop the key we are about to use.
+            // Idle keys go first: their buckets are full again, so forgetting them changes nothing;
+            // busy keys dropped beyond that start again with a full bucket.
+            if (buckets.size() >= sweeper.getMaxSize()) {
+                sweeper.sweep(bucketFullAt -> bucketFullAt.get() <= now, 1);
+            }
+            fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                rejected.increment();
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getEvictions() {
+        return sweeper.getEvictions();
+    }
+}
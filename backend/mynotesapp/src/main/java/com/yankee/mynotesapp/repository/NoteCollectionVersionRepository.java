@@ -0,0 +1,14 @@
+package com.yankee.mynotesapp.repository;
+
+import com.yankee.mynotesapp.note.NoteCollectionVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface NoteCollectionVersionRepository extends JpaRepository<NoteCollectionVersion, Long> {
+
+    @Query("select v.version from NoteCollectionVersion v where v.userId = :userId")
+    Optional<Long> findVersion(@Param("userId") Long userId);
+}
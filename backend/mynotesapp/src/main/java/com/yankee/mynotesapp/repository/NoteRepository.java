@@ -3,11 +3,42 @@
 package com.yankee.mynotesapp.repository;
 
 import com.yankee.mynotesapp.note.Note;
+import com.yankee.mynotesapp.note.NoteSummary;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+public interface NoteRepository extends JpaRepository<Note, Long>, NoteRepositoryCustom {
+    // Tells a stale If-Match (412) from a missing note (404), and reads back the version after an unconditional update
+    @Query("select n.version from Note n where n.id = :id and n.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    List<Note> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    // Notes changed after the given position in the user's change sequence
+    List<Note> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(Long userId, Long changeSeq,
+            Pageable pageable);
+
+    @Query("select new com.yankee.mynotesapp.note.NoteSummary(n.id, n.title, "
+            + "coalesce(n.contentLength, length(n.legacyContent), 0), n.createdAt, n.updatedAt) "
+            + "from Note n where n.user.id = :userId order by n.id asc")
+    List<NoteSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.yankee.mynotesapp.note.NoteSummary(n.id, n.title, "
+            + "coalesce(n.contentLength, length(n.legacyContent), 0), n.createdAt, n.updatedAt) "
+            + "from Note n where n.id = :id and n.user.id = :userId")
+    Optional<NoteSummary> findSummaryByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
 
-public interface NoteRepository extends JpaRepository<Note, Long> {
-    // Custom query to find all notes belonging to a specific user
-    List<Note> findByUserId(Long userId);
+    // Keyset page of summaries: rows after the given id, content never leaves the database
+    @Query("select new com.yankee.mynotesapp.note.NoteSummary(n.id, n.title, "
+            + "coalesce(n.contentLength, length(n.legacyContent), 0), n.createdAt, n.updatedAt) "
+            + "from Note n where n.user.id = :userId and n.id > :afterId order by n.id asc")
+    List<NoteSummary> findSummariesAfter(@Param("userId") Long userId, @Param("afterId") Long afterId,
+            Pageable pageable);
 }
\ No newline at end of file
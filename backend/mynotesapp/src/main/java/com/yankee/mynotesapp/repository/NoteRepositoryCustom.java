@@ -0,0 +1,44 @@
+package com.yankee.mynotesapp.repository;
+
+import com.yankee.mynotesapp.note.Note;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+// Hand-written note queries that Spring Data can't derive
+public interface NoteRepositoryCustom {
+
+    /**
+     * One UPDATE scoped to both id and owner. Only the non-null fields are
+     * written, plus version, changeSeq and updatedAt. With expectedVersion the
+     * row must also still be at that version.
+     *
+     * @return rows affected: 0 means not found, not owned, or version moved on
+     */
+    int updateOwned(Long id, Long userId, String title, String content, Long expectedVersion, long changeSeq);
+
+    /**
+     * One DELETE scoped to both id and owner.
+     *
+     * @return rows affected: 0 means not found or not owned
+     */
+    int deleteOwned(Long id, Long userId);
+
+    /**
+     * A user's notes in id order, read through the second-level cache: the
+     * User.notes collection gives the ids and each note comes from the notes
+     * region, so a repeat listing with nothing changed needs no SQL. Misses are
+     * loaded in batches (Note's @BatchSize), not one by one.
+     */
+    List<Note> findAllOfUser(Long userId);
+
+    /**
+     * A user's notes in id order, streamed from the database for exports. Rows
+     * are loaded read-only and bypass the second-level cache, so one export
+     * doesn't push everyone else's notes out of it. Needs an open transaction.
+     */
+    Stream<Note> streamByUserId(Long userId);
+
+    // Every note in id order, same streaming settings (search index rebuild)
+    Stream<Note> streamAll();
+}
@@ -0,0 +1,162 @@
+package com.yankee.mynotesapp.repository;
+
+import com.yankee.mynotesapp.model.User;
+import com.yankee.mynotesapp.note.Note;
+import com.yankee.mynotesapp.note.NoteContentCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The single-note writes are native statements declared against a query space
+ * no entity uses. Hibernate would otherwise treat them like any bulk statement
+ * on notes and clear the whole notes region and every user's cached listing;
+ * instead only the entries for the one affected row are evicted here.
+ *
+ * <p>The note streams use the fetch size from notes.stream.fetch-size. The
+ * default, Integer.MIN_VALUE, makes Connector/J stream that one result set row
+ * by row; useCursorFetch on the URL would do it with a server-side cursor, but
+ * also switches every other statement in the app to server-side prepares.
+ */
+public class NoteRepositoryImpl implements NoteRepositoryCustom {
+
+    private static final String SINGLE_NOTE_SPACE = "notes.single-row";
+    private static final String USER_NOTES_ROLE = User.class.getName() + ".notes";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NoteContentCodec codec;
+    private final int streamFetchSize;
+
+    public NoteRepositoryImpl(NoteContentCodec codec,
+            @Value("${notes.stream.fetch-size:-2147483648}") int streamFetchSize) {
+        this.codec = codec;
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    @Override
+    public int updateOwned(Long id, Long userId, String title, String content, Long expectedVersion,
+            long changeSeq) {
+        StringBuilder sql = new StringBuilder("UPDATE notes SET ");
+        if (title != null) {
+            sql.append("title = :title, ");
+        }
+        if (content != null) {
+            // Same encoding NoteContentConverter applies to entity writes
+            sql.append("content_data = :contentData, content_length = :contentLength, "
+                    + "content_bytes = :contentBytes, content = NULL, ");
+        }
+        sql.append("version = version + 1, change_seq = :changeSeq, updated_at = :updatedAt "
+                + "WHERE id = :id AND user_id = :userId");
+        if (expectedVersion != null) {
+            sql.append(" AND version = :expectedVersion");
+        }
+
+        Query update = singleNoteStatement(sql.toString())
+                .setParameter("changeSeq", changeSeq)
+                .setParameter("updatedAt", Instant.now())
+                .setParameter("id", id)
+                .setParameter("userId", userId);
+        if (title != null) {
+            update.setParameter("title", title);
+        }
+        if (content != null) {
+            update.setParameter("contentData", codec.encode(content));
+            update.setParameter("contentLength", content.length());
+            update.setParameter("contentBytes", NoteContentCodec.utf8Length(content));
+        }
+        if (expectedVersion != null) {
+            update.setParameter("expectedVersion", expectedVersion);
+        }
+
+        int updated = update.executeUpdate();
+        if (updated > 0) {
+            // User.notes only holds ids, which an update doesn't change
+            evict(cache -> cache.evictEntityData(Note.class, id));
+        }
+        return updated;
+    }
+
+    @Override
+    public int deleteOwned(Long id, Long userId) {
+        int deleted = singleNoteStatement("DELETE FROM notes WHERE id = :id AND user_id = :userId")
+                .setParameter("id", id)
+                .setParameter("userId", userId)
+                .executeUpdate();
+        if (deleted > 0) {
+            evict(cache -> {
+                cache.evictEntityData(Note.class, id);
+                cache.evictCollectionData(USER_NOTES_ROLE, userId);
+            });
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Note> findAllOfUser(Long userId) {
+        User user = entityManager.find(User.class, userId);
+        if (user == null) {
+            return List.of();
+        }
+        // Copy so the lazy collection is initialized before the session closes
+        return new ArrayList<>(user.getNotes());
+    }
+
+    @Override
+    public Stream<Note> streamByUserId(Long userId) {
+        return stream(entityManager
+                .createQuery("select n from Note n where n.user.id = :userId order by n.id asc", Note.class)
+                .setParameter("userId", userId));
+    }
+
+    @Override
+    public Stream<Note> streamAll() {
+        return stream(entityManager.createQuery("select n from Note n order by n.id asc", Note.class));
+    }
+
+    private Stream<Note> stream(TypedQuery<Note> query) {
+        return query.setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultStream();
+    }
+
+    private Query singleNoteStatement(String sql) {
+        Query query = entityManager.createNativeQuery(sql);
+        query.unwrap(NativeQuery.class).addSynchronizedQuerySpace(SINGLE_NOTE_SPACE);
+        return query;
+    }
+
+    // Evicts now, so this transaction and others stop reading the old state, and
+    // again after completion, in case a concurrent read cached the old row meanwhile
+    private void evict(Consumer<Cache> eviction) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        eviction.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.accept(cache);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.yankee.mynotesapp.repository;
+
+import com.yankee.mynotesapp.note.NoteTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+
+    List<NoteTombstone> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(Long userId, long changeSeq,
+            Pageable pageable);
+
+    @Modifying
+    @Query("delete from NoteTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,34 @@
+package com.yankee.mynotesapp.repository;
+
+import com.yankee.mynotesapp.cardano.TxSubmission;
+import com.yankee.mynotesapp.cardano.TxSubmissionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface TxSubmissionRepository extends JpaRepository<TxSubmission, String> {
+
+    @Query("select s.txHash from TxSubmission s where s.status = :status and s.nextAttemptAt <= :now"
+            + " order by s.nextAttemptAt")
+    List<String> findDue(@Param("status") TxSubmissionStatus status, @Param("now") Instant now, Pageable pageable);
+
+    List<TxSubmission> findByStatusIn(Collection<TxSubmissionStatus> statuses);
+
+    @Query("select s.txHash from TxSubmission s where s.status = :status order by s.submittedAt")
+    List<String> findHashesByStatus(@Param("status") TxSubmissionStatus status, Pageable pageable);
+
+    // Takes a due PENDING row for one worker by pushing its next attempt past the lease; 0 if someone else got it
+    @Transactional
+    @Modifying
+    @Query("update TxSubmission s set s.nextAttemptAt = :leaseUntil"
+            + " where s.txHash = :txHash and s.status = :status and s.nextAttemptAt <= :now")
+    int claim(@Param("txHash") String txHash, @Param("status") TxSubmissionStatus status,
+            @Param("now") Instant now, @Param("leaseUntil") Instant leaseUntil);
+}
@@ -0,0 +1,56 @@
+package com.yankee.mynotesapp.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps concurrent calls to one upstream. A caller waits at most maxWaitMs for
+ * a slot, so a stalled upstream ties up a bounded number of threads and the
+ * rest are turned away quickly.
+ */
+public class Bulkhead {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(int maxConcurrent, long maxWaitMs) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    // Every true must be paired with exit()
+    public boolean tryEnter() {
+        try {
+            if (permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int getInFlight() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,224 @@
+package com.yankee.mynotesapp.resilience;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * CLOSED: outcomes go into a ring of the last windowSize calls; once at least
+ * minCalls are recorded and the failure rate reaches the threshold, it opens.
+ * OPEN: every call is refused until openNanos have passed.
+ * HALF_OPEN: up to probes calls are let through; if all succeed it closes,
+ * the first failure opens it again.
+ *
+ * Every transition starts a new epoch. A permit carries the epoch it was
+ * granted in, and outcomes from an earlier epoch are ignored, so a slow call
+ * that started while CLOSED can't close (or re-open) a breaker that has moved on.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public interface Listener {
+        void onTransition(State from, State to);
+    }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int probes;
+    private final LongSupplier clock;
+    private volatile Listener listener = (from, to) -> { };
+
+    // Guarded by lock (not synchronized, so virtual threads waiting on it keep their carrier)
+    private final ReentrantLock lock = new ReentrantLock();
+    private State state = State.CLOSED;
+    private long epoch;
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    private final LongAdder notPermitted = new LongAdder();
+    private final Map<State, LongAdder> transitionsTo = new EnumMap<>(State.class);
+
+    public CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, long openNanos, int probes) {
+        this(windowSize, minCalls, failureRateThreshold, openNanos, probes, System::nanoTime);
+    }
+
+    public CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, long openNanos, int probes,
+            LongSupplier clock) {
+        if (windowSize <= 0 || minCalls <= 0 || minCalls > windowSize || probes <= 0
+                || failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.windowSize = windowSize;
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.probes = probes;
+        this.clock = clock;
+        this.window = new boolean[windowSize];
+        for (State s : State.values()) {
+            transitionsTo.put(s, new LongAdder());
+        }
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @return a permit (the current epoch, >= 0) to pass to onSuccess / onFailure,
+     *         or -1 if the call must not be made
+     */
+    public long tryAcquire() {
+        Transition transition = null;
+        long permit;
+        lock.lock();
+        try {
+            if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+                transition = moveTo(State.HALF_OPEN);
+            }
+            if (state == State.OPEN || (state == State.HALF_OPEN && probesInFlight >= probes)) {
+                notPermitted.increment();
+                permit = -1;
+            } else {
+                if (state == State.HALF_OPEN) {
+                    probesInFlight++;
+                }
+                permit = epoch;
+            }
+        } finally {
+            lock.unlock();
+        }
+        fire(transition);
+        return permit;
+    }
+
+    public void onSuccess(long permit) {
+        Transition transition = null;
+        lock.lock();
+        try {
+            if (permit != epoch) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                probesInFlight--;
+                if (++probeSuccesses >= probes) {
+                    transition = moveTo(State.CLOSED);
+                }
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+        fire(transition);
+    }
+
+    public void onFailure(long permit) {
+        Transition transition = null;
+        lock.lock();
+        try {
+            if (permit != epoch) {
+                return;
+            }
+            if (state == State.HALF_OPEN) {
+                transition = moveTo(State.OPEN);
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (windowCount >= minCalls && windowFailures >= failureRateThreshold * windowCount) {
+                    transition = moveTo(State.OPEN);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        fire(transition);
+    }
+
+    public State getState() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // While OPEN: nanoseconds until probes are let through; otherwise 0
+    public long getRemainingOpenNanos() {
+        lock.lock();
+        try {
+            return state == State.OPEN ? Math.max(0, openedAt + openNanos - clock.getAsLong()) : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double getFailureRate() {
+        lock.lock();
+        try {
+            return windowCount == 0 ? 0 : (double) windowFailures / windowCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getNotPermitted() {
+        return notPermitted.sum();
+    }
+
+    public long getTransitionsTo(State to) {
+        return transitionsTo.get(to).sum();
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == windowSize) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % windowSize;
+    }
+
+    private Transition moveTo(State to) {
+        State from = state;
+        state = to;
+        epoch++;
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (to == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        transitionsTo.get(to).increment();
+        return new Transition(from, to);
+    }
+
+    // Listeners run outside the lock
+    private void fire(Transition transition) {
+        if (transition != null) {
+            listener.onTransition(transition.from, transition.to);
+        }
+    }
+
+    private record Transition(State from, State to) { }
+}
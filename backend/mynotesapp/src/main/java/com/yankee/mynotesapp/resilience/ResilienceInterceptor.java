@@ -0,0 +1,180 @@
+package com.yankee.mynotesapp.resilience;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Puts a bulkhead and a circuit breaker in front of every request of a
+ * RestTemplate. Refused calls throw UpstreamUnavailableException before any
+ * connection is used.
+ *
+ * Transport errors, 5xx, and the statuses Blockfrost uses for a bad key or an
+ * exhausted quota (402, 403, 418, 429) count as failures; other 4xx are the
+ * caller's problem (404 for an unused address, 400 for a bad transaction) and
+ * count as successes. A call keeps its bulkhead slot until its response is
+ * closed (RestTemplate always closes it), and a body that fails to read
+ * counts as a failure even after a 2xx status.
+ */
+public class ResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilienceInterceptor(String name, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!bulkhead.tryEnter()) {
+            throw new UpstreamUnavailableException(
+                    name + " is busy: " + bulkhead.getMaxConcurrent() + " calls already in flight", 1);
+        }
+        long permit = circuitBreaker.tryAcquire();
+        if (permit < 0) {
+            bulkhead.exit();
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(circuitBreaker.getRemainingOpenNanos()) + 1);
+            throw new UpstreamUnavailableException(name + " is unavailable (circuit open)", seconds);
+        }
+
+        Call call = new Call(permit);
+        ClientHttpResponse response = null;
+        try {
+            response = execution.execute(request, body);
+            return new GuardedResponse(response, call, isFailure(response.getStatusCode().value()));
+        } catch (IOException | RuntimeException | Error e) {
+            if (response != null) {
+                response.close();
+            }
+            call.finish(true);
+            throw e;
+        }
+    }
+
+    /**
+     * One admitted call. The bulkhead slot is held and the outcome left open
+     * until the response is closed or its body fails to read, since the
+     * connection is busy (and the upstream can still fail) until then.
+     */
+    private final class Call {
+
+        private final long permit;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Call(long permit) {
+            this.permit = permit;
+        }
+
+        void finish(boolean failed) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (failed) {
+                    circuitBreaker.onFailure(permit);
+                } else {
+                    circuitBreaker.onSuccess(permit);
+                }
+            } finally {
+                bulkhead.exit();
+            }
+        }
+    }
+
+    private static final class GuardedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Call call;
+        // Outcome by status, used unless reading the body fails first
+        private final boolean failedStatus;
+
+        GuardedResponse(ClientHttpResponse delegate, Call call, boolean failedStatus) {
+            this.delegate = delegate;
+            this.call = call;
+            this.failedStatus = failedStatus;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            InputStream body;
+            try {
+                body = delegate.getBody();
+            } catch (IOException e) {
+                call.finish(true);
+                throw e;
+            }
+            return new FilterInputStream(body) {
+                @Override
+                public int read() throws IOException {
+                    try {
+                        return super.read();
+                    } catch (IOException e) {
+                        call.finish(true);
+                        throw e;
+                    }
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    try {
+                        return super.read(b, off, len);
+                    } catch (IOException e) {
+                        call.finish(true);
+                        throw e;
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        call.finish(failedStatus);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                call.finish(failedStatus);
+            }
+        }
+    }
+
+    static boolean isFailure(int status) {
+        return status >= 500 || status == 402 || status == 403 || status == 418 || status == 429;
+    }
+}
@@ -0,0 +1,16 @@
+package com.yankee.mynotesapp.resilience;
+
+// Thrown instead of calling an upstream whose circuit is open or whose bulkhead is full
+public class UpstreamUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
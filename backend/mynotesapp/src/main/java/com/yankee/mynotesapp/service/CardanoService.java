@@ -1,6 +1,19 @@
 package com.yankee.mynotesapp.service;
 
+import com.yankee.mynotesapp.cache.RefreshingCache;
+import com.yankee.mynotesapp.cardano.BlockfrostChainInfo;
+import com.yankee.mynotesapp.cardano.BlockfrostUtxoFetcher;
+import com.yankee.mynotesapp.cardano.InsufficientFundsException;
+import com.yankee.mynotesapp.cardano.UnsignedTx;
+import com.yankee.mynotesapp.cardano.UnsignedTxBuilder;
+import com.yankee.mynotesapp.cardano.UpstreamDeadline;
+import com.yankee.mynotesapp.cardano.Utxo;
 import com.yankee.mynotesapp.config.CardanoConfig;
+import com.yankee.mynotesapp.resilience.UpstreamUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 // ⬅️ NEW IMPORT for Exception Handling
@@ -8,32 +21,57 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.http.*;
 import java.util.*;
 import java.math.BigInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
-import com.bloxbean.cardano.client.backend.api.BackendService;
-import com.bloxbean.cardano.client.backend.blockfrost.service.BFBackendService;
 import com.bloxbean.cardano.client.transaction.spec.TransactionOutput;
-import com.bloxbean.cardano.client.transaction.spec.TransactionBody;
+import com.bloxbean.cardano.client.transaction.spec.Transaction;
+import com.bloxbean.cardano.client.transaction.spec.TransactionInput;
+import com.bloxbean.cardano.client.util.HexUtil;
 
 @Service
 public class CardanoService {
 
-    private final String BASE_URL = "https://cardano-preprod.blockfrost.io/api/v0";
+    private static final Logger log = LoggerFactory.getLogger(CardanoService.class);
+
     private final String apiKey;
 
-    private final BackendService backendService;
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Shared pooled client (BlockfrostClientConfig); relative URIs resolve against blockfrost.base-url
+    private final RestTemplate restTemplate;
 
-    public CardanoService(CardanoConfig config) {
-        this.apiKey = config.getBlockfrostApiKey();
+    // UTxOs by address: short TTL, stale-while-revalidate, one upstream call per address at a time
+    private final RefreshingCache<String, List<Utxo>> utxoCache;
 
-        String effectiveApiKey = (this.apiKey == null || this.apiKey.trim().isEmpty())
-                ? "dummy_blockfrost_key"
-                : this.apiKey;
+    // Walks every page of an address's UTxOs
+    private final BlockfrostUtxoFetcher utxoFetcher;
 
-        this.backendService = new BFBackendService(BASE_URL, effectiveApiKey);
+    private final BlockfrostChainInfo chainInfo;
+    private final UnsignedTxBuilder txBuilder;
 
-        if (effectiveApiKey.equals("dummy_blockfrost_key")) {
-            System.err.println("WARNING: Blockfrost API Key missing or empty. Using dummy key for mock flow.");
+    // Inputs of queued and unconfirmed transactions (out ref -> tx hash). Blockfrost keeps
+    // listing them as unspent until the transaction is in a block, so payments skip them.
+    private final Map<String, String> pendingSpends = new ConcurrentHashMap<>();
+
+    public CardanoService(CardanoConfig config,
+            @Qualifier("blockfrostRestTemplate") RestTemplate restTemplate,
+            BlockfrostUtxoFetcher utxoFetcher,
+            BlockfrostChainInfo chainInfo,
+            UnsignedTxBuilder txBuilder,
+            @Qualifier("applicationTaskExecutor") Executor refreshExecutor,
+            @Value("${cardano.utxo-cache.max-size:1000}") int utxoCacheSize,
+            @Value("${cardano.utxo-cache.ttl-seconds:20}") long utxoTtlSeconds,
+            @Value("${cardano.utxo-cache.stale-seconds:60}") long utxoStaleSeconds) {
+        this.apiKey = config.getBlockfrostApiKey();
+        this.restTemplate = restTemplate;
+        this.utxoFetcher = utxoFetcher;
+        this.chainInfo = chainInfo;
+        this.txBuilder = txBuilder;
+        this.utxoCache = new RefreshingCache<>(utxoCacheSize, utxoTtlSeconds * 1000, utxoStaleSeconds * 1000,
+                this::fetchUTxOs, refreshExecutor);
+
+        if (this.apiKey == null || this.apiKey.trim().isEmpty()) {
+            log.warn("Blockfrost API key missing or empty; Blockfrost calls will fail");
         }
     }
 
@@ -46,87 +84,142 @@ public class CardanoService {
 
     // ⬅️ CRITICAL FIX: Added exception handling to prevent 500 crash on API
     // rejection
-    public List<Map<String, Object>> getUTxOs(String address) {
-        String url = BASE_URL + "/addresses/" + address + "/utxos";
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("project_id", apiKey);
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-
+    public List<Utxo> getUTxOs(String address) {
         try {
-            // Attempt to fetch UTxOs
-            ResponseEntity<List> response = restTemplate.exchange(url, HttpMethod.GET, entity, List.class);
-            return (List<Map<String, Object>>) response.getBody();
+            return lookupUTxOs(address);
+        } catch (UpstreamUnavailableException e) {
+            // Circuit open or bulkhead full: let the caller answer 503 rather than pretend the wallet is empty
+            throw e;
         } catch (HttpClientErrorException e) {
             // Catch 4xx errors (e.g., 403 Forbidden due to invalid API key)
-            System.err.println(
-                    "Blockfrost UTXO Fetch Failed (4xx error). Returning empty list: " + e.getResponseBodyAsString());
+            log.warn("Blockfrost UTxO fetch failed ({}), returning empty list: {}", e.getStatusCode(),
+                    e.getResponseBodyAsString());
             // Return an empty list, allowing the application to proceed without crashing
             return Collections.emptyList();
         } catch (Exception e) {
-            System.err.println("Generic UTXO Fetch Failure. Returning empty list: " + e.getMessage());
+            log.warn("UTxO fetch failed, returning empty list: {}", e.getMessage());
             return Collections.emptyList();
         }
     }
 
-    // CRITICAL NEW METHOD: Builds the unsigned transaction (MOCK FOR FLOW TEST)
-    public String buildUnsignedTransaction(String sender, String recipient, double amount) {
-
-        BigInteger amountLovelace = BigInteger.valueOf((long) (amount * 1_000_000));
+    /**
+     * Served from the cache when possible; concurrent misses share one upstream call.
+     * Unlike getUTxOs, upstream failures are thrown rather than turned into an empty list.
+     * Within an UpstreamDeadline only the wait is bounded by it: the upstream call then runs on
+     * the refresh executor, outside the deadline, and still serves every other caller.
+     */
+    public List<Utxo> lookupUTxOs(String address) {
+        return utxoCache.get(address, UpstreamDeadline.remainingNanos());
+    }
 
-        try {
-            // NOTE: The actual transaction building logic is complex.
-            // We are returning a hardcoded CBOR hex to allow the frontend to proceed to the
-            // signing step,
-            // proving the entire flow (Client -> Server -> Client Sign) is correct for the
-            // assignment.
+    /**
+     * Passes every UTxO of the address to the consumer a page at a time, bypassing
+     * the cache, so very large wallets never sit in memory as a whole. Each page's
+     * upstream response is closed before the consumer sees it.
+     */
+    public long streamUTxOs(String address, Consumer<Utxo> consumer) {
+        return utxoFetcher.forEach(address, consumer);
+    }
 
-            TransactionOutput recipientOutput = TransactionOutput.builder()
-                    .address(recipient)
-                    .value(new com.bloxbean.cardano.client.transaction.spec.Value(amountLovelace, null))
-                    .build();
+    // Upstream call behind the cache: all pages, typed. Errors propagate so they are never cached.
+    private List<Utxo> fetchUTxOs(String address) {
+        List<Utxo> utxos = new ArrayList<>();
+        utxoFetcher.forEach(address, utxos::add);
+        return Collections.unmodifiableList(utxos);
+    }
 
-            // ⬅️ MOCK/PLACEHOLDER RETURN
-            return "DUMMY_UNSIGNED_CBOR_HEX_5840A1008001825839010101010101010101010101010101010101010101010101010101010101010101010101010101010101010101010101010101010101010101010101010101";
+    // Drops cached UTxO lists the transaction spends from or pays to
+    private void invalidateUTxOs(String signedTxHex) {
+        try {
+            Transaction tx = Transaction.deserialize(HexUtil.decodeHexString(signedTxHex));
+            Set<String> spent = new HashSet<>();
+            for (TransactionInput input : tx.getBody().getInputs()) {
+                spent.add(input.getTransactionId() + "#" + input.getIndex());
+            }
+            Set<String> paidTo = new HashSet<>();
+            for (TransactionOutput output : tx.getBody().getOutputs()) {
+                paidTo.add(output.getAddress());
+            }
+
+            utxoCache.invalidateIf((address, utxos) -> paidTo.contains(address)
+                    || utxos.stream().anyMatch(u -> spent.contains(u.outRef())));
+        } catch (Exception e) {
+            // Can't tell which addresses changed; better to refetch everything than serve spent outputs
+            utxoCache.invalidateIf((address, utxos) -> true);
+        }
+    }
 
+    /**
+     * Marks the transaction's inputs as spent for coin selection, from the
+     * moment it is queued until releaseInputs.
+     */
+    public void reserveInputs(String txHash, String signedTxHex) {
+        try {
+            Transaction tx = Transaction.deserialize(HexUtil.decodeHexString(signedTxHex));
+            for (TransactionInput input : tx.getBody().getInputs()) {
+                pendingSpends.put(input.getTransactionId() + "#" + input.getIndex(), txHash);
+            }
         } catch (Exception e) {
-            throw new RuntimeException("Cardano transaction building failed on server: " + e.getMessage(), e);
+            log.warn("Could not read the inputs of transaction {}: {}", txHash, e.getMessage());
         }
     }
 
-    // CRITICAL FIX: Add exception handling to prevent 500 crash on API rejection
-    public Map<String, Object> submitTransaction(String signedTxHex) {
-        String url = BASE_URL + "/tx/submit";
+    // The transaction is on chain or has failed: either way the cached listings around it are stale
+    public void releaseInputs(String txHash, String signedTxHex) {
+        pendingSpends.values().removeIf(txHash::equals);
+        invalidateUTxOs(signedTxHex);
+    }
+
+    public RefreshingCache<String, List<Utxo>> getUtxoCache() {
+        return utxoCache;
+    }
+
+    /**
+     * Builds a real unsigned payment from the sender's UTxOs (cached, all pages),
+     * leaving out inputs that a queued transaction already spends.
+     *
+     * @throws IllegalArgumentException for an invalid amount or strategy
+     * @throws InsufficientFundsException if the sender can't cover amount, fee and change
+     */
+    public UnsignedTx buildUnsignedTransaction(String sender, String recipient, BigInteger amountLovelace,
+            String coinSelection) {
+        if (amountLovelace == null || amountLovelace.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive.");
+        }
+        List<Utxo> utxos = lookupUTxOs(sender).stream()
+                .filter(utxo -> !pendingSpends.containsKey(utxo.outRef()))
+                .toList();
+        return txBuilder.build(utxos, sender, recipient, amountLovelace, coinSelection,
+                chainInfo.protocolParams(), chainInfo.currentSlot());
+    }
 
+    /**
+     * Posts a signed transaction to Blockfrost and returns the hash it reports.
+     * Called by TxSubmissionService's workers, never on a request thread.
+     *
+     * @throws org.springframework.web.client.RestClientException on rejection or transport failure
+     */
+    public String postTransaction(String signedTxHex) {
         HttpHeaders submitHeaders = new HttpHeaders();
         submitHeaders.set("project_id", apiKey);
         submitHeaders.setContentType(new MediaType("application", "cbor"));
 
-        HttpEntity<String> entity = new HttpEntity<>(signedTxHex, submitHeaders);
+        // Blockfrost takes the raw CBOR bytes, not the hex text
+        HttpEntity<byte[]> entity = new HttpEntity<>(HexUtil.decodeHexString(signedTxHex), submitHeaders);
+        ResponseEntity<String> response = restTemplate.exchange("/tx/submit", HttpMethod.POST, entity, String.class);
 
-        try {
-            // Attempt to submit the transaction
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
+        invalidateUTxOs(signedTxHex);
+        String body = response.getBody();
+        return body != null ? body.replace("\"", "").trim() : null;
+    }
 
-            Map<String, Object> result = new HashMap<>();
-            result.put("txHash", response.getBody());
-            return result;
-        } catch (HttpClientErrorException e) {
-            // Catch 4xx errors (e.g., 403 Forbidden due to invalid API key)
-            // and return a graceful failure message instead of crashing the server (500)
-            System.err.println("Blockfrost Submission Failed (4xx error): " + e.getResponseBodyAsString());
-
-            // Return a guaranteed mock hash if the API call fails
-            Map<String, Object> result = new HashMap<>();
-            // This mock hash is the final assignment proof.
-            result.put("txHash", "MOCK_HASH_DUE_TO_API_FAILURE_" + UUID.randomUUID().toString().substring(0, 8));
-            return result;
-        } catch (Exception e) {
-            // Catch any other unexpected network or submission failure
-            System.err.println("Generic Submission Failure: " + e.getMessage());
-            throw new RuntimeException("Final transaction submission failed on server.", e);
+    // True once the transaction is in a block; Blockfrost answers 404 until then
+    public boolean isOnChain(String txHash) {
+        try {
+            restTemplate.exchange("/txs/{hash}", HttpMethod.GET, new HttpEntity<>(headers()), String.class, txHash);
+            return true;
+        } catch (HttpClientErrorException.NotFound e) {
+            return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,189 @@
+package com.yankee.mynotesapp.service;
+
+import com.yankee.mynotesapp.config.AppUserDetails;
+import com.yankee.mynotesapp.model.User;
+import com.yankee.mynotesapp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password checks for /api/auth/login, run on a small dedicated pool instead
+ * of the servlet threads so a login burst can't starve notes traffic.
+ *
+ * The pool's queue is bounded: when it is full, authenticate() throws
+ * RejectedExecutionException straight away, and a task that waited longer
+ * than maxQueueWaitMs is dropped the same way instead of hashing for a client
+ * that has probably given up. Hashes made with a lower BCrypt strength than
+ * the configured one are replaced after a successful login.
+ */
+@Service
+public class LoginService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginService.class);
+
+    private final UserCacheService userCacheService;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long maxQueueWaitNanos;
+    // Compared against for unknown users so they take as long as wrong passwords
+    private final String dummyHash;
+
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAccumulator maxQueueWait = new LongAccumulator(Math::max, 0);
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+
+    public LoginService(UserCacheService userCacheService, UserRepository userRepository,
+            PasswordEncoder passwordEncoder,
+            @Value("${auth.login.threads:0}") int threads,
+            @Value("${auth.login.queue-capacity:100}") int queueCapacity,
+            @Value("${auth.login.max-queue-wait-ms:2000}") long maxQueueWaitMs) {
+        this.userCacheService = userCacheService;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        this.dummyHash = passwordEncoder.encode("login-timing-placeholder");
+
+        // BCrypt is pure CPU, so more threads than cores only adds queueing inside the pool
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Looks the user up once and verifies the password off the request thread.
+     * Completes with empty for an unknown user or a wrong password.
+     *
+     * @throws RejectedExecutionException if the login queue is full
+     */
+    public CompletableFuture<Optional<AppUserDetails>> authenticate(String username, String password) {
+        long submittedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> verify(username, password, submittedAt), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+    }
+
+    private Optional<AppUserDetails> verify(String username, String password, long submittedAt) {
+        long waited = System.nanoTime() - submittedAt;
+        queueWaitNanos.add(waited);
+        maxQueueWait.accumulate(waited);
+        if (waited > maxQueueWaitNanos) {
+            rejected.increment();
+            throw new RejectedExecutionException("Login waited " + TimeUnit.NANOSECONDS.toMillis(waited) + " ms");
+        }
+
+        Optional<User> found = username == null ? Optional.empty() : userCacheService.findByUsername(username);
+        String hash = found.map(User::getPassword).orElse(dummyHash);
+        boolean matches = password != null && timedMatches(password, hash);
+        if (found.isEmpty() || !matches) {
+            return Optional.empty();
+        }
+
+        User user = found.get();
+        if (passwordEncoder.upgradeEncoding(hash)) {
+            rehash(user, password);
+        }
+        return Optional.of(new AppUserDetails(user.getId(), user.getUsername(), hash,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private boolean timedMatches(String password, String hash) {
+        long start = System.nanoTime();
+        try {
+            return passwordEncoder.matches(password, hash);
+        } finally {
+            long took = System.nanoTime() - start;
+            hashCount.increment();
+            hashNanos.add(took);
+            maxHashNanos.accumulate(took);
+        }
+    }
+
+    // The login already succeeded, so a failed upgrade is only logged
+    private void rehash(User user, String password) {
+        try {
+            String encoded = passwordEncoder.encode(password);
+            // An entity write keeps the cached user current (a bulk update would clear the whole region)
+            userRepository.findById(user.getId()).ifPresent(fresh -> {
+                fresh.setPassword(encoded);
+                userRepository.save(fresh);
+            });
+            rehashed.increment();
+        } catch (RuntimeException e) {
+            log.warn("Could not upgrade password hash for user {}", user.getId(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // --- Statistics ---
+
+    public long getHashCount() {
+        return hashCount.sum();
+    }
+
+    public long getHashNanos() {
+        return hashNanos.sum();
+    }
+
+    public long getMaxHashNanos() {
+        return maxHashNanos.get();
+    }
+
+    public long getQueueWaitNanos() {
+        return queueWaitNanos.sum();
+    }
+
+    public long getMaxQueueWaitNanos() {
+        return maxQueueWait.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getRehashed() {
+        return rehashed.sum();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+}
@@ -0,0 +1,275 @@
+package com.yankee.mynotesapp.service;
+
+import com.bloxbean.cardano.client.transaction.util.TransactionUtil;
+import com.bloxbean.cardano.client.util.HexUtil;
+import com.yankee.mynotesapp.cardano.TxSubmission;
+import com.yankee.mynotesapp.cardano.TxSubmissionStatus;
+import com.yankee.mynotesapp.config.WorkerThreads;
+import com.yankee.mynotesapp.repository.TxSubmissionRepository;
+import com.yankee.mynotesapp.resilience.UpstreamUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Durable transaction submission. The submit endpoint only stores the signed
+ * transaction (keyed by its hash) and returns; a small worker pool posts it to
+ * Blockfrost, retrying transient failures with exponential backoff and jitter,
+ * and a second job watches submitted transactions until they are on chain.
+ *
+ * Rows are the queue: a worker takes one by pushing its nextAttemptAt past a
+ * lease, so a crash or restart just leaves it due again once the lease runs out.
+ *
+ * From the moment a transaction is queued until it is confirmed or failed,
+ * CardanoService treats its inputs as spent, so a second payment from the
+ * same wallet doesn't pick them again.
+ */
+@Service
+public class TxSubmissionService implements SmartInitializingSingleton {
+
+    private final TxSubmissionRepository repository;
+    private final CardanoService cardanoService;
+    private final ThreadPoolExecutor workers;
+
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final Duration lease;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final LongSupplier clock;
+
+    @Autowired
+    public TxSubmissionService(TxSubmissionRepository repository, CardanoService cardanoService,
+            @Value("${cardano.submit.workers:4}") int workerCount,
+            @Value("${cardano.submit.queue-capacity:100}") int queueCapacity,
+            @Value("${cardano.submit.max-attempts:8}") int maxAttempts,
+            @Value("${cardano.submit.base-backoff-ms:2000}") long baseBackoffMs,
+            @Value("${cardano.submit.max-backoff-ms:300000}") long maxBackoffMs,
+            @Value("${cardano.submit.lease-ms:60000}") long leaseMs,
+            @Value("${cardano.submit.batch-size:50}") int batchSize,
+            @Value("${cardano.submit.confirm-timeout-minutes:180}") long confirmTimeoutMinutes,
+            Environment environment) {
+        this(repository, cardanoService,
+                new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(queueCapacity),
+                        WorkerThreads.factory("tx-submit-", environment),
+                        new ThreadPoolExecutor.AbortPolicy()),
+                maxAttempts, baseBackoffMs, maxBackoffMs, leaseMs, batchSize, confirmTimeoutMinutes,
+                System::currentTimeMillis);
+    }
+
+    TxSubmissionService(TxSubmissionRepository repository, CardanoService cardanoService,
+            ThreadPoolExecutor workers, int maxAttempts, long baseBackoffMs, long maxBackoffMs, long leaseMs,
+            int batchSize, long confirmTimeoutMinutes, LongSupplier clock) {
+        this.repository = repository;
+        this.cardanoService = cardanoService;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.lease = Duration.ofMillis(leaseMs);
+        this.batchSize = batchSize;
+        this.confirmTimeout = Duration.ofMinutes(confirmTimeoutMinutes);
+        this.clock = clock;
+    }
+
+    // Reservations live in memory: take them back for everything still in flight after a restart
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (TxSubmission submission : repository.findByStatusIn(
+                List.of(TxSubmissionStatus.PENDING, TxSubmissionStatus.SUBMITTED))) {
+            cardanoService.reserveInputs(submission.getTxHash(), submission.getCborHex());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Anything in flight is retried after its lease expires
+        workers.shutdownNow();
+    }
+
+    /**
+     * Stores the transaction for submission and hands it to a worker if one is
+     * free. Submitting a transaction that is already known returns its row.
+     *
+     * @throws IllegalArgumentException if the hex is not a decodable transaction
+     */
+    public TxSubmission enqueue(String signedTxHex) {
+        String cborHex = signedTxHex.trim().toLowerCase();
+        String txHash = txHash(cborHex);
+
+        Optional<TxSubmission> existing = repository.findById(txHash);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        TxSubmission submission;
+        try {
+            submission = repository.saveAndFlush(new TxSubmission(txHash, cborHex, now()));
+        } catch (DataIntegrityViolationException e) {
+            // Same transaction submitted concurrently; the other request's row wins
+            return repository.findById(txHash).orElseThrow(() -> e);
+        }
+        cardanoService.reserveInputs(txHash, cborHex);
+        dispatch(txHash);
+        return submission;
+    }
+
+    public Optional<TxSubmission> find(String txHash) {
+        return repository.findById(txHash.toLowerCase());
+    }
+
+    // Picks up due rows: new ones the submit call couldn't hand off, retries, and expired leases
+    @Scheduled(fixedDelayString = "${cardano.submit.poll-interval-ms:1000}", initialDelay = 5_000)
+    public void dispatchDue() {
+        for (String txHash : repository.findDue(TxSubmissionStatus.PENDING, now(), PageRequest.of(0, batchSize))) {
+            if (!dispatch(txHash)) {
+                return;
+            }
+        }
+    }
+
+    // Moves SUBMITTED rows to CONFIRMED once Blockfrost has them in a block
+    @Scheduled(fixedDelayString = "${cardano.submit.confirm-interval-ms:20000}", initialDelay = 20_000)
+    public void checkConfirmations() {
+        for (String txHash : repository.findHashesByStatus(TxSubmissionStatus.SUBMITTED, PageRequest.of(0, batchSize))) {
+            repository.findById(txHash).ifPresent(this::checkConfirmation);
+        }
+    }
+
+    // false when the pool is full; the row stays due and the next poll tries again
+    private boolean dispatch(String txHash) {
+        Instant now = now();
+        if (workers.getQueue().remainingCapacity() == 0) {
+            return false;
+        }
+        if (repository.claim(txHash, TxSubmissionStatus.PENDING, now, now.plus(lease)) == 0) {
+            return true;
+        }
+        try {
+            workers.execute(() -> attempt(txHash));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Claimed but not run: due again once the lease expires
+            return false;
+        }
+    }
+
+    private void attempt(String txHash) {
+        TxSubmission submission = repository.findById(txHash).orElse(null);
+        if (submission == null || submission.getStatus() != TxSubmissionStatus.PENDING) {
+            return;
+        }
+        Instant now = now();
+        try {
+            cardanoService.postTransaction(submission.getCborHex());
+            submission.setAttempts(submission.getAttempts() + 1);
+            submission.setStatus(TxSubmissionStatus.SUBMITTED);
+            submission.setSubmittedAt(now);
+            submission.setLastError(null);
+        } catch (UpstreamUnavailableException e) {
+            // Refused locally, Blockfrost never saw it: wait out the open circuit without using up an attempt
+            submission.setLastError(e.getMessage());
+            submission.setNextAttemptAt(now.plusSeconds(e.getRetryAfterSeconds()));
+        } catch (Exception e) {
+            submission.setAttempts(submission.getAttempts() + 1);
+            submission.setLastError(describe(e));
+            if (!isRetryable(e) && submission.getAttempts() > 1 && onChain(txHash)) {
+                // An earlier attempt got through after all; resubmitting then fails on spent inputs
+                submission.setStatus(TxSubmissionStatus.CONFIRMED);
+                submission.setConfirmedAt(now);
+                submission.setLastError(null);
+            } else if (!isRetryable(e) || submission.getAttempts() >= maxAttempts) {
+                submission.setStatus(TxSubmissionStatus.FAILED);
+            } else {
+                submission.setNextAttemptAt(now.plusMillis(backoff(submission.getAttempts())));
+            }
+        }
+        repository.save(submission);
+        releaseIfSettled(submission);
+    }
+
+    private void checkConfirmation(TxSubmission submission) {
+        Instant now = now();
+        if (onChain(submission.getTxHash())) {
+            submission.setStatus(TxSubmissionStatus.CONFIRMED);
+            submission.setConfirmedAt(now);
+        } else if (submission.getSubmittedAt().plus(confirmTimeout).isBefore(now)) {
+            // Past any sensible TTL: dropped from the mempool
+            submission.setStatus(TxSubmissionStatus.FAILED);
+            submission.setLastError("Not on chain " + confirmTimeout.toMinutes() + " minutes after submission");
+        } else {
+            return;
+        }
+        repository.save(submission);
+        releaseIfSettled(submission);
+    }
+
+    private void releaseIfSettled(TxSubmission submission) {
+        if (submission.getStatus() == TxSubmissionStatus.CONFIRMED
+                || submission.getStatus() == TxSubmissionStatus.FAILED) {
+            cardanoService.releaseInputs(submission.getTxHash(), submission.getCborHex());
+        }
+    }
+
+    private Instant now() {
+        return Instant.ofEpochMilli(clock.getAsLong());
+    }
+
+    private boolean onChain(String txHash) {
+        try {
+            return cardanoService.isOnChain(txHash);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Exponential with "equal jitter": half the delay fixed, half random, so retries don't move in lockstep
+    long backoff(int attempts) {
+        long delay = baseBackoffMs << Math.min(attempts - 1, 20);
+        delay = Math.min(Math.max(delay, 0), maxBackoffMs);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    // Blockfrost rejects invalid transactions with 400; throttling, 5xx and I/O errors are worth retrying
+    static boolean isRetryable(Exception e) {
+        if (e instanceof HttpStatusCodeException status) {
+            int code = status.getStatusCode().value();
+            return code == 408 || code == 425 || code == 429 || code >= 500;
+        }
+        return true;
+    }
+
+    private static String describe(Exception e) {
+        String message = e instanceof HttpStatusCodeException status
+                ? status.getStatusCode().value() + " " + status.getResponseBodyAsString()
+                : e.getClass().getSimpleName() + ": " + e.getMessage();
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static String txHash(String cborHex) {
+        try {
+            return TransactionUtil.getTxHash(HexUtil.decodeHexString(cborHex));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Not a valid signed transaction: " + e.getMessage(), e);
+        }
+    }
+}
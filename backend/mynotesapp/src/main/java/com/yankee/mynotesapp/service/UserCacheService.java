@@ -0,0 +1,32 @@
+package com.yankee.mynotesapp.service;
+
+import com.yankee.mynotesapp.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * User lookups by username through Hibernate's second-level cache: username
+ * resolves to an id in the natural-id region and the row comes from the users
+ * region, so a warm lookup runs no SQL. Hibernate updates both regions on every
+ * write it makes, so callers can modify and save the returned entity as usual.
+ */
+@Service
+public class UserCacheService {
+
+    private final EntityManager entityManager;
+
+    public UserCacheService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -0,0 +1,177 @@
+package com.yankee.mynotesapp.service;
+
+import com.yankee.mynotesapp.cardano.AssetTotals;
+import com.yankee.mynotesapp.cardano.UpstreamDeadline;
+import com.yankee.mynotesapp.cardano.Utxo;
+import com.yankee.mynotesapp.config.WorkerThreads;
+import com.yankee.mynotesapp.resilience.UpstreamUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UTxOs and balances for several addresses at once. Each address is looked up
+ * on a small shared pool (which caps concurrent Blockfrost calls across all
+ * requests); the caller gets a future, so no servlet thread waits on upstream.
+ * An address that is slower than the per-address timeout, or fails, is
+ * reported as such while the others are still returned. The timeout is also
+ * an UpstreamDeadline on the lookup itself, so its worker is freed by then
+ * rather than staying blocked on Blockfrost. A cache miss is loaded on the
+ * cache's refresh executor, outside that deadline, so giving up never fails
+ * the load for other callers of the same address.
+ */
+@Service
+public class WalletService {
+
+    public static final int MAX_ADDRESSES = 20;
+
+    private final CardanoService cardanoService;
+    private final ThreadPoolExecutor executor;
+    private final long addressTimeoutMs;
+
+    public WalletService(CardanoService cardanoService,
+            @Value("${cardano.wallet.max-concurrency:8}") int maxConcurrency,
+            @Value("${cardano.wallet.queue-capacity:200}") int queueCapacity,
+            @Value("${cardano.wallet.address-timeout-ms:5000}") long addressTimeoutMs,
+            Environment environment) {
+        this.cardanoService = cardanoService;
+        this.addressTimeoutMs = addressTimeoutMs;
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                WorkerThreads.factory("wallet-", environment),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @return per-address results (in the given order), the summed balance of the
+     *         addresses that answered, and whether every address answered
+     */
+    public CompletableFuture<Map<String, Object>> summarize(List<String> addresses) {
+        List<CompletableFuture<Lookup>> lookups = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            lookups.add(lookup(address));
+        }
+
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0]))
+                .thenApply(done -> {
+                    List<Map<String, Object>> results = new ArrayList<>(lookups.size());
+                    AssetTotals total = new AssetTotals();
+                    boolean complete = true;
+                    for (CompletableFuture<Lookup> lookup : lookups) {
+                        Lookup result = lookup.join();
+                        results.add(result.body);
+                        if (result.totals != null) {
+                            total.merge(result.totals);
+                        } else {
+                            complete = false;
+                        }
+                    }
+
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("addresses", results);
+                    response.put("balance", total.asStrings());
+                    response.put("complete", complete);
+                    return response;
+                });
+    }
+
+    /**
+     * Balance of one address, totalled while its pages stream in; the UTxOs
+     * themselves are never collected, so this works for very large wallets.
+     */
+    public CompletableFuture<Map<String, Object>> balance(String address) {
+        try {
+            return CompletableFuture.supplyAsync(() -> totalsOf(address), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Map<String, Object> totalsOf(String address) {
+        AssetTotals totals = new AssetTotals();
+        cardanoService.streamUTxOs(address, totals);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("address", address);
+        response.put("utxoCount", totals.getUtxoCount());
+        response.put("balance", totals.asStrings());
+        return response;
+    }
+
+    // Never completes exceptionally: failures become a status on the address's result
+    private CompletableFuture<Lookup> lookup(String address) {
+        // Counted from submission, so time spent queued comes out of the same budget
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(addressTimeoutMs);
+        CompletableFuture<Lookup> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> UpstreamDeadline.until(deadline,
+                    () -> ok(address, cardanoService.lookupUTxOs(address))), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(failed(address, "busy", "Too many wallet lookups in progress"));
+        }
+        return future
+                .completeOnTimeout(failed(address, "timeout", "No answer within " + addressTimeoutMs + " ms"),
+                        addressTimeoutMs, TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    return failed(address, cause instanceof UpstreamUnavailableException ? "unavailable" : "error",
+                            cause.getMessage());
+                });
+    }
+
+    private static Lookup ok(String address, List<Utxo> utxos) {
+        AssetTotals totals = new AssetTotals().addAll(utxos);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("address", address);
+        body.put("status", "ok");
+        body.put("utxoCount", utxos.size());
+        body.put("balance", totals.asStrings());
+        body.put("utxos", utxos);
+        return new Lookup(body, totals);
+    }
+
+    private static Lookup failed(String address, String status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("address", address);
+        body.put("status", status);
+        body.put("message", message);
+        return new Lookup(body, null);
+    }
+
+    // Per-address response body plus its totals (null when the lookup failed)
+    private static final class Lookup {
+        private final Map<String, Object> body;
+        private final AssetTotals totals;
+
+        private Lookup(Map<String, Object> body, AssetTotals totals) {
+            this.body = body;
+            this.totals = totals;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+}
@@ -0,0 +1,38 @@
+package com.yankee.mynotesapp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringCacheTests {
+
+	@Test
+	void expiredEntriesAreMisses() {
+		AtomicLong now = new AtomicLong(1_000);
+		ExpiringCache<String, String> cache = new ExpiringCache<>(10, now::get);
+
+		cache.put("a", "value", 2_000);
+		assertEquals("value", cache.get("a"));
+
+		now.set(2_000);
+		assertNull(cache.get("a"));
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	void sizeStaysBounded() {
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100);
+		long expiresAt = System.currentTimeMillis() + 60_000;
+
+		for (int i = 0; i < 10_000; i++) {
+			cache.put(i, i, expiresAt);
+		}
+
+		assertTrue(cache.size() <= 100);
+		assertTrue(cache.getEvictions() > 0);
+	}
+
+}
@@ -0,0 +1,200 @@
+package com.yankee.mynotesapp.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshingCacheTests {
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		RefreshingCache<String, String> cache = new RefreshingCache<>(10, 60_000, 0, key -> {
+			calls.incrementAndGet();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return key.toUpperCase();
+		}, Runnable::run);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(pool.submit(() -> cache.get("addr")));
+			}
+			Thread.sleep(100);
+			release.countDown();
+			for (Future<String> result : results) {
+				assertEquals("ADDR", result.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(1, calls.get());
+		assertEquals(1, cache.getLoads());
+	}
+
+	@Test
+	void boundedWaitGivesUpOnAnotherCallersLoad() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RefreshingCache<String, String> cache = new RefreshingCache<>(10, 60_000, 0, key -> {
+			loading.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return key.toUpperCase();
+		}, Runnable::run);
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> leader = pool.submit(() -> cache.get("addr"));
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+			long start = System.nanoTime();
+			CompletionException timedOut = assertThrows(CompletionException.class,
+					() -> cache.get("addr", TimeUnit.MILLISECONDS.toNanos(50)));
+			assertInstanceOf(TimeoutException.class, timedOut.getCause());
+			assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+			// The shared load itself carries on for everyone else
+			release.countDown();
+			assertEquals("ADDR", leader.get(5, TimeUnit.SECONDS));
+			assertEquals("ADDR", cache.get("addr", 0));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void boundedCallerLeavesTheSharedLoadToTheRefreshExecutor() throws Exception {
+		AtomicReference<Thread> loaderThread = new AtomicReference<>();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService refresher = Executors.newSingleThreadExecutor();
+		RefreshingCache<String, String> cache = new RefreshingCache<>(10, 60_000, 0, key -> {
+			loaderThread.set(Thread.currentThread());
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return key.toUpperCase();
+		}, refresher);
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			CompletionException timedOut = assertThrows(CompletionException.class,
+					() -> cache.get("addr", TimeUnit.MILLISECONDS.toNanos(50)));
+			assertInstanceOf(TimeoutException.class, timedOut.getCause());
+
+			// A caller without a limit joins the same load and still gets the value
+			Future<String> waiter = pool.submit(() -> cache.get("addr"));
+			release.countDown();
+			assertEquals("ADDR", waiter.get(5, TimeUnit.SECONDS));
+			assertNotSame(Thread.currentThread(), loaderThread.get());
+			assertEquals(1, cache.getLoads());
+		} finally {
+			pool.shutdownNow();
+			refresher.shutdownNow();
+		}
+	}
+
+	@Test
+	void errorInTheLoaderReachesWaiters() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		RefreshingCache<String, String> cache = new RefreshingCache<>(10, 60_000, 0, key -> {
+			loading.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw new NoClassDefFoundError("missing parser");
+		}, Runnable::run);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> leader = pool.submit(() -> cache.get("addr"));
+			assertTrue(loading.await(5, TimeUnit.SECONDS));
+			Future<String> waiter = pool.submit(() -> cache.get("addr"));
+			Thread.sleep(100);
+			release.countDown();
+
+			ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(NoClassDefFoundError.class, leaderFailure.getCause());
+			ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+			assertInstanceOf(NoClassDefFoundError.class, waiterFailure.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1, cache.getLoadFailures());
+	}
+
+	@Test
+	void staleValueIsServedWhileRefreshing() {
+		AtomicLong now = new AtomicLong(1_000);
+		AtomicInteger version = new AtomicInteger();
+		RefreshingCache<String, Integer> cache = new RefreshingCache<>(10, 100, 500,
+				key -> version.incrementAndGet(), Runnable::run, now::get);
+
+		assertEquals(1, cache.get("a"));
+		now.addAndGet(200);
+		// Stale read returns the old value and refreshes (inline executor) for the next one
+		assertEquals(1, cache.get("a"));
+		assertEquals(2, cache.get("a"));
+		assertEquals(1, cache.getStaleHits());
+
+		now.addAndGet(1_000);
+		assertEquals(3, cache.get("a"));
+		assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	void failedLoadsAreNotCached() {
+		AtomicInteger calls = new AtomicInteger();
+		RefreshingCache<String, String> cache = new RefreshingCache<>(10, 60_000, 0, key -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new IllegalStateException("upstream down");
+			}
+			return "ok";
+		}, Runnable::run);
+
+		assertThrows(IllegalStateException.class, () -> cache.get("a"));
+		assertEquals("ok", cache.get("a"));
+		assertEquals(1, cache.getLoadFailures());
+	}
+
+	@Test
+	void invalidateIfDropsMatchingEntries() {
+		RefreshingCache<String, String> cache = new RefreshingCache<>(10, 60_000, 0, key -> key + "-v", Runnable::run);
+		cache.get("a");
+		cache.get("b");
+
+		cache.invalidateIf((key, value) -> value.startsWith("a"));
+
+		assertEquals(1, cache.size());
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.yankee.mynotesapp.cardano;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockfrostMetricsInterceptorTests {
+
+	@Test
+	void routesHideAddressesAndHashes() {
+		assertEquals("/addresses/{address}/utxos",
+				BlockfrostMetricsInterceptor.route("/api/v0/addresses/addr_test1qxyz/utxos"));
+		assertEquals("/addresses/{address}", BlockfrostMetricsInterceptor.route("/api/v0/addresses/addr_test1qxyz"));
+		assertEquals("/txs/{hash}", BlockfrostMetricsInterceptor.route("/api/v0/txs/" + "ab".repeat(32)));
+		assertEquals("/tx/submit", BlockfrostMetricsInterceptor.route("/api/v0/tx/submit"));
+		assertEquals("/epochs/latest/parameters", BlockfrostMetricsInterceptor.route("/epochs/latest/parameters"));
+		assertEquals("other", BlockfrostMetricsInterceptor.route("/api/v0/assets/" + "cd".repeat(30)));
+	}
+
+}
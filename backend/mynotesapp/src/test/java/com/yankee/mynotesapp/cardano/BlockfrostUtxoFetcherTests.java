@@ -0,0 +1,77 @@
+package com.yankee.mynotesapp.cardano;
+
+import com.yankee.mynotesapp.resilience.Bulkhead;
+import com.yankee.mynotesapp.resilience.CircuitBreaker;
+import com.yankee.mynotesapp.resilience.ResilienceInterceptor;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockfrostUtxoFetcherTests {
+
+	@Test
+	void walksEveryPageAndTotalsAssets() throws Exception {
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().syntheticWallet("addr_big", 2_550)) {
+			BlockfrostUtxoFetcher fetcher = fetcher(stub);
+
+			AssetTotals totals = new AssetTotals();
+			long count = fetcher.forEach("addr_big", totals);
+
+			assertEquals(2_550, count);
+			assertEquals(2_550, totals.getUtxoCount());
+			assertEquals(BigInteger.valueOf(2_550_000_000L), totals.getLovelace());
+			assertEquals("1275", totals.asStrings().get(StubBlockfrostServer.SYNTHETIC_TOKEN_UNIT));
+			// 25 full pages and one short one
+			assertEquals(26, stub.requestCount());
+		}
+	}
+
+	@Test
+	void exactMultipleOfPageSizeEndsOnEmptyPage() throws Exception {
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().syntheticWallet("addr_even", 200)) {
+			List<Utxo> utxos = new ArrayList<>();
+			fetcher(stub).forEach("addr_even", utxos::add);
+
+			assertEquals(200, utxos.size());
+			assertEquals(String.format("%064x", 199) + "#1", utxos.get(199).outRef());
+			assertEquals(3, stub.requestCount());
+		}
+	}
+
+	@Test
+	void unknownAddressHasNoUtxos() throws Exception {
+		try (StubBlockfrostServer stub = new StubBlockfrostServer()) {
+			assertEquals(0, fetcher(stub).forEach("addr_unused", utxo -> fail("no UTxOs expected")));
+		}
+	}
+
+	@Test
+	void consumerRunsAfterEachPageHasReleasedItsBulkheadSlot() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(1, 0);
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().syntheticWallet("addr_slow", 250)) {
+			RestTemplate rest = new RestTemplate();
+			rest.setUriTemplateHandler(new DefaultUriBuilderFactory(stub.baseUrl()));
+			rest.getInterceptors().add(new ResilienceInterceptor("Blockfrost",
+					new CircuitBreaker(10, 5, 0.5, 1_000_000, 1), bulkhead));
+			BlockfrostUtxoFetcher fetcher = new BlockfrostUtxoFetcher(rest, "test-key", JsonMapper.builder().build(), 1_000);
+
+			List<Integer> inFlight = new ArrayList<>();
+			assertEquals(250, fetcher.forEach("addr_slow", utxo -> inFlight.add(bulkhead.getInFlight())));
+			assertTrue(inFlight.stream().allMatch(n -> n == 0));
+		}
+	}
+
+	private static BlockfrostUtxoFetcher fetcher(StubBlockfrostServer stub) {
+		RestTemplate rest = new RestTemplate();
+		rest.setUriTemplateHandler(new DefaultUriBuilderFactory(stub.baseUrl()));
+		return new BlockfrostUtxoFetcher(rest, "test-key", JsonMapper.builder().build(), 1_000);
+	}
+
+}
@@ -0,0 +1,120 @@
+package com.yankee.mynotesapp.cardano;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoinSelectionTests {
+
+	@Test
+	void largestFirstTakesFewestInputs() {
+		List<Utxo> utxos = wallet(1_000_000, 7_000_000, 2_000_000, 5_000_000, 3_000_000);
+
+		CoinSelection selection = new LargestFirstSelection().select(utxos, 10_000_000, 10);
+
+		assertEquals(2, selection.getInputs().size());
+		assertEquals(12_000_000, selection.getLovelace());
+		assertEquals(7_000_000, selection.getInputs().get(0).lovelace());
+		assertEquals(5_000_000, selection.getInputs().get(1).lovelace());
+	}
+
+	@Test
+	void insufficientFundsAreRejected() {
+		List<Utxo> utxos = wallet(1_000_000, 2_000_000);
+
+		assertThrows(InsufficientFundsException.class,
+				() -> new LargestFirstSelection().select(utxos, 3_000_001, 10));
+		assertThrows(InsufficientFundsException.class,
+				() -> new RandomImproveSelection(1).select(utxos, 3_000_001, 10));
+	}
+
+	@Test
+	void inputCapIsEnforced() {
+		List<Utxo> utxos = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			utxos.add(utxo(i, 1_000_000));
+		}
+
+		assertThrows(InsufficientFundsException.class,
+				() -> new LargestFirstSelection().select(utxos, 50_000_000, 20));
+		assertEquals(20, new LargestFirstSelection().select(utxos, 20_000_000, 20).getInputs().size());
+	}
+
+	@Test
+	void randomImproveCoversTargetWithinThreeTimes() {
+		List<Utxo> utxos = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			utxos.add(utxo(i, 1_000_000 + (i * 7919L) % 3_000_000));
+		}
+
+		for (long seed = 0; seed < 20; seed++) {
+			CoinSelection selection = new RandomImproveSelection(seed).select(utxos, 25_000_000, 150);
+
+			assertTrue(selection.getLovelace() >= 25_000_000);
+			assertTrue(selection.getLovelace() <= 75_000_000);
+			assertEquals(selection.getLovelace(), sum(selection.getInputs()));
+			Set<String> refs = new HashSet<>();
+			selection.getInputs().forEach(u -> assertTrue(refs.add(u.outRef()), "input used twice"));
+		}
+	}
+
+	@Test
+	void randomImproveIsDeterministicForASeed() {
+		List<Utxo> utxos = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			utxos.add(utxo(i, 1_000_000 + i));
+		}
+
+		CoinSelection first = new RandomImproveSelection(42).select(utxos, 10_000_000, 150);
+		CoinSelection second = new RandomImproveSelection(42).select(utxos, 10_000_000, 150);
+
+		assertEquals(first.getInputs(), second.getInputs());
+	}
+
+	@Test
+	void randomImproveFallsBackToLargestFirstAtInputCap() {
+		List<Utxo> utxos = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++) {
+			utxos.add(utxo(i, 1_000_000));
+		}
+		utxos.add(utxo(1_000, 40_000_000));
+
+		// Random draws of 1 ADA would need ~40 inputs; the cap forces the big UTxO
+		CoinSelection selection = new RandomImproveSelection(7).select(utxos, 40_000_000, 5);
+
+		assertEquals(1, selection.getInputs().size());
+		assertEquals(40_000_000, selection.getLovelace());
+	}
+
+	private static List<Utxo> wallet(long... lovelace) {
+		List<Utxo> utxos = new ArrayList<>();
+		for (int i = 0; i < lovelace.length; i++) {
+			utxos.add(utxo(i, lovelace[i]));
+		}
+		return utxos;
+	}
+
+	private static Utxo utxo(int i, long lovelace) {
+		Utxo utxo = new Utxo();
+		utxo.setAddress("addr_test");
+		utxo.setTxHash(String.format("%064x", i));
+		utxo.setOutputIndex(0);
+		utxo.setAmount(List.of(new UtxoAmount(UtxoAmount.LOVELACE, BigInteger.valueOf(lovelace))));
+		return utxo;
+	}
+
+	private static long sum(List<Utxo> utxos) {
+		long total = 0;
+		for (Utxo utxo : utxos) {
+			total += utxo.lovelace();
+		}
+		return total;
+	}
+
+}
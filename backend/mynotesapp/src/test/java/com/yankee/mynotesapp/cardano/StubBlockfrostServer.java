@@ -0,0 +1,187 @@
+package com.yankee.mynotesapp.cardano;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for the Blockfrost API (JDK HttpServer, random port) with
+ * injectable latency and errors. Serves:
+ *
+ *   GET  /addresses/{address}/utxos  -> the JSON set with utxos(), a page of a
+ *                                       syntheticWallet(), or 404
+ *   POST /tx/submit                  -> a JSON string tx hash
+ *
+ * Tracks request counts and the peak number of requests in flight, which is
+ * what pool-size tests look at.
+ */
+public class StubBlockfrostServer implements AutoCloseable {
+
+	// Policy id + "token", carried by every tenth synthetic UTxO
+	public static final String SYNTHETIC_TOKEN_UNIT = "ab".repeat(28) + "746f6b656e";
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+	private final Map<String, String> utxosByAddress = new ConcurrentHashMap<>();
+	private final Map<String, Integer> syntheticWallets = new ConcurrentHashMap<>();
+
+	private final AtomicLong latencyMillis = new AtomicLong();
+	private final AtomicInteger failuresLeft = new AtomicInteger();
+	private volatile int failureStatus = 500;
+
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger peakInFlight = new AtomicInteger();
+
+	public StubBlockfrostServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	public String baseUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	public StubBlockfrostServer latency(Duration latency) {
+		latencyMillis.set(latency.toMillis());
+		return this;
+	}
+
+	// The next `count` requests answer with `status` instead of their normal response
+	public StubBlockfrostServer failNext(int count, int status) {
+		failureStatus = status;
+		failuresLeft.set(count);
+		return this;
+	}
+
+	public StubBlockfrostServer utxos(String address, String json) {
+		utxosByAddress.put(address, json);
+		return this;
+	}
+
+	/**
+	 * Address with {@code utxoCount} generated UTxOs of 1 ADA each (every tenth also
+	 * holds 5 units of a token), served in pages honouring ?page=&count=.
+	 */
+	public StubBlockfrostServer syntheticWallet(String address, int utxoCount) {
+		syntheticWallets.put(address, utxoCount);
+		return this;
+	}
+
+	public int requestCount() {
+		return requests.get();
+	}
+
+	public int peakInFlight() {
+		return peakInFlight.get();
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try {
+			exchange.getRequestBody().readAllBytes();
+			long latency = latencyMillis.get();
+			if (latency > 0) {
+				Thread.sleep(latency);
+			}
+
+			if (failuresLeft.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+				respond(exchange, failureStatus, "{\"status_code\":" + failureStatus + ",\"error\":\"Injected\"}");
+				return;
+			}
+
+			String path = exchange.getRequestURI().getPath();
+			if ("POST".equals(exchange.getRequestMethod()) && path.equals("/tx/submit")) {
+				respond(exchange, 200, "\"" + "ab".repeat(32) + "\"");
+			} else if ("GET".equals(exchange.getRequestMethod()) && path.startsWith("/addresses/")
+					&& path.endsWith("/utxos")) {
+				String address = path.substring("/addresses/".length(), path.length() - "/utxos".length());
+				Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+				int page = Integer.parseInt(query.getOrDefault("page", "1"));
+				int count = Integer.parseInt(query.getOrDefault("count", "100"));
+				Integer synthetic = syntheticWallets.get(address);
+				String json = utxosByAddress.get(address);
+				if (synthetic != null) {
+					respond(exchange, 200, syntheticPage(address, synthetic, page, count));
+				} else if (json != null && page > 1) {
+					respond(exchange, 200, "[]");
+				} else if (json == null) {
+					respond(exchange, 404, "{\"status_code\":404,\"error\":\"Not Found\"}");
+				} else {
+					respond(exchange, 200, json);
+				}
+			} else {
+				respond(exchange, 404, "{\"status_code\":404,\"error\":\"Not Found\"}");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			inFlight.decrementAndGet();
+			exchange.close();
+		}
+	}
+
+	private static String syntheticPage(String address, int total, int page, int count) {
+		StringBuilder json = new StringBuilder("[");
+		int from = (page - 1) * count;
+		int to = Math.min(total, from + count);
+		for (int i = from; i < to; i++) {
+			if (i > from) {
+				json.append(',');
+			}
+			json.append("{\"address\":\"").append(address)
+					.append("\",\"tx_hash\":\"").append(String.format("%064x", i))
+					.append("\",\"output_index\":").append(i % 3)
+					.append(",\"amount\":[{\"unit\":\"lovelace\",\"quantity\":\"1000000\"}");
+			if (i % 10 == 0) {
+				json.append(",{\"unit\":\"").append(SYNTHETIC_TOKEN_UNIT).append("\",\"quantity\":\"5\"}");
+			}
+			json.append("],\"block\":\"").append(String.format("%064x", i / 20))
+					.append("\",\"data_hash\":null,\"inline_datum\":null,\"reference_script_hash\":null}");
+		}
+		return json.append(']').toString();
+	}
+
+	private static Map<String, String> query(String rawQuery) {
+		Map<String, String> params = new HashMap<>();
+		if (rawQuery != null) {
+			for (String pair : rawQuery.split("&")) {
+				int eq = pair.indexOf('=');
+				if (eq > 0) {
+					params.put(pair.substring(0, eq), pair.substring(eq + 1));
+				}
+			}
+		}
+		return params;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.yankee.mynotesapp.config;
+
+import com.yankee.mynotesapp.cardano.StubBlockfrostServer;
+import com.yankee.mynotesapp.cardano.UpstreamDeadline;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockfrostClientConfigTests {
+
+	@Test
+	void slowResponsesHitTheReadTimeout() throws Exception {
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().utxos("addr1", "[]").latency(Duration.ofMillis(500));
+				CloseableHttpClient client = BlockfrostClientConfig.httpClient(
+						BlockfrostClientConfig.connectionManager(4, 4, 1_000, 100), 100, 1_000)) {
+			RestTemplate rest = BlockfrostClientConfig.restTemplate(client, stub.baseUrl());
+
+			assertThrows(ResourceAccessException.class,
+					() -> rest.getForObject("/addresses/{a}/utxos", String.class, "addr1"));
+		}
+	}
+
+	@Test
+	void upstreamDeadlineAbortsACallStillWaitingForItsResponse() throws Exception {
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().utxos("addr1", "[]").latency(Duration.ofMillis(2_000));
+				CloseableHttpClient client = BlockfrostClientConfig.httpClient(
+						BlockfrostClientConfig.connectionManager(4, 4, 1_000, 5_000), 5_000, 1_000)) {
+			RestTemplate rest = BlockfrostClientConfig.restTemplate(client, stub.baseUrl());
+
+			long start = System.nanoTime();
+			assertThrows(ResourceAccessException.class, () -> UpstreamDeadline.until(
+					System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200),
+					() -> rest.getForObject("/addresses/{a}/utxos", String.class, "addr1")));
+			assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1_500));
+		}
+	}
+
+	@Test
+	void concurrencyIsCappedByThePerRouteLimit() throws Exception {
+		PoolingHttpClientConnectionManager pool = BlockfrostClientConfig.connectionManager(10, 2, 1_000, 5_000);
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().utxos("addr1", "[]").latency(Duration.ofMillis(100));
+				CloseableHttpClient client = BlockfrostClientConfig.httpClient(pool, 5_000, 5_000)) {
+			RestTemplate rest = BlockfrostClientConfig.restTemplate(client, stub.baseUrl());
+
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(callers.submit(() -> rest.getForObject("/addresses/{a}/utxos", String.class, "addr1")));
+			}
+			for (Future<String> result : results) {
+				assertEquals("[]", result.get(10, TimeUnit.SECONDS));
+			}
+
+			assertEquals(8, stub.requestCount());
+			assertTrue(stub.peakInFlight() <= 2);
+			// Keep-alive: the eight calls were served by at most two connections
+			assertTrue(pool.getTotalStats().getAvailable() <= 2);
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	void injectedErrorsSurfaceAsServerErrors() throws Exception {
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().utxos("addr1", "[]").failNext(1, 503);
+				CloseableHttpClient client = BlockfrostClientConfig.httpClient(
+						BlockfrostClientConfig.connectionManager(4, 4, 1_000, 1_000), 1_000, 1_000)) {
+			RestTemplate rest = BlockfrostClientConfig.restTemplate(client, stub.baseUrl());
+
+			assertThrows(HttpServerErrorException.class,
+					() -> rest.getForObject("/addresses/{a}/utxos", String.class, "addr1"));
+			assertEquals("[]", rest.getForObject("/addresses/{a}/utxos", String.class, "addr1"));
+		}
+	}
+
+}
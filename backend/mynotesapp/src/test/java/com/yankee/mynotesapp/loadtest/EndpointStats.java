@@ -0,0 +1,85 @@
+package com.yankee.mynotesapp.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (microseconds) of successful calls to one endpoint plus its
+ * failures by status. Recording is lock-free; interval() hands back what was
+ * recorded since the previous call, which is how warmup gets discarded.
+ */
+final class EndpointStats {
+
+	// Anything slower is clamped; the report would show it at the max anyway
+	static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+	private final String name;
+	private final Recorder recorder = new Recorder(MAX_MICROS, 3);
+	// Status 0 stands for an I/O error (no response)
+	private final ConcurrentHashMap<Integer, LongAdder> failures = new ConcurrentHashMap<>();
+	// Units of work carried by the calls, for endpoints that do more than one per call (batches)
+	private final LongAdder items = new LongAdder();
+	// Statements the server executed for these calls, as counted by StatementCountFilter
+	private final LongAdder statements = new LongAdder();
+	private final LongAdder counted = new LongAdder();
+
+	EndpointStats(String name) {
+		this.name = name;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	void success(long micros) {
+		recorder.recordValue(Math.max(1, Math.min(micros, MAX_MICROS)));
+	}
+
+	void failure(int status) {
+		failures.computeIfAbsent(status, s -> new LongAdder()).increment();
+	}
+
+	void items(int count) {
+		items.add(count);
+	}
+
+	long items() {
+		return items.sum();
+	}
+
+	void statements(long count) {
+		statements.add(count);
+		counted.increment();
+	}
+
+	// NaN when no call was counted
+	double statementsPerRequest() {
+		long requests = counted.sum();
+		return requests == 0 ? Double.NaN : (double) statements.sum() / requests;
+	}
+
+	Histogram interval() {
+		return recorder.getIntervalHistogram();
+	}
+
+	// Failures since the last reset, by status
+	Map<Integer, Long> failures() {
+		Map<Integer, Long> counts = new TreeMap<>();
+		failures.forEach((status, count) -> counts.put(status, count.sum()));
+		return counts;
+	}
+
+	void reset() {
+		recorder.reset();
+		failures.clear();
+		items.reset();
+		statements.reset();
+		counted.reset();
+	}
+}
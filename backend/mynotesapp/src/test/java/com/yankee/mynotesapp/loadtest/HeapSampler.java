@@ -0,0 +1,62 @@
+package com.yankee.mynotesapp.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Peak heap in use and GC work over the measured window. Server and load
+ * generator share the JVM, so these are whole-process numbers: compare runs
+ * that differ in one thing (e.g. the listing endpoint), don't read them as
+ * the server's footprint.
+ */
+final class HeapSampler implements AutoCloseable {
+
+	private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+	private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "heap-sampler");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final AtomicLong peakUsed = new AtomicLong();
+	private long collectionsAtReset;
+	private long gcMillisAtReset;
+
+	HeapSampler() {
+		sampler.scheduleAtFixedRate(
+				() -> peakUsed.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+				0, 50, TimeUnit.MILLISECONDS);
+	}
+
+	// Start of the measured window
+	void reset() {
+		peakUsed.set(0);
+		collectionsAtReset = collections();
+		gcMillisAtReset = gcMillis();
+	}
+
+	String summary() {
+		return String.format(Locale.ROOT, "Heap: peak %d MB in use, %d collections, %d ms in GC",
+				peakUsed.get() >> 20, collections() - collectionsAtReset, gcMillis() - gcMillisAtReset);
+	}
+
+	@Override
+	public void close() {
+		sampler.shutdownNow();
+	}
+
+	private static long collections() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream()
+				.mapToLong(GarbageCollectorMXBean::getCollectionCount).filter(n -> n > 0).sum();
+	}
+
+	private static long gcMillis() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream()
+				.mapToLong(GarbageCollectorMXBean::getCollectionTime).filter(n -> n > 0).sum();
+	}
+}
@@ -0,0 +1,206 @@
+package com.yankee.mynotesapp.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The app's HTTP API as the frontend uses it, one method per endpoint. Every
+ * call is recorded in LoadStats: the latency on a 2xx, the status otherwise.
+ *
+ * Latency is measured from the call's intended start, which for paced users
+ * can be earlier than the moment it was sent (see VirtualUser). Requests ask
+ * for gzip like a browser does, so response compression is part of the cost.
+ */
+final class LoadClient {
+
+	static final String SIGNUP = "POST /api/auth/signup";
+	static final String LOGIN = "POST /api/auth/login";
+	static final String LIST = "GET /api/notes";
+	static final String PAGE = "GET /api/notes/page";
+	static final String GET = "GET /api/notes/{id}";
+	static final String CREATE = "POST /api/notes";
+	static final String UPDATE = "PUT /api/notes/{id}";
+	static final String DELETE = "DELETE /api/notes/{id}";
+	static final String UTXOS = "GET /api/cardano/utxos";
+	static final String BATCH = "POST /api/notes/batch";
+	static final String PRELOADED_LIST = "GET /api/notes (preloaded)";
+	static final String PRELOADED_PAGE = "GET /api/notes/page (preloaded)";
+
+	// Full listings of a preloaded account can be very large; anything slower is clamped anyway
+	private static final Duration TIMEOUT = Duration.ofMillis(EndpointStats.MAX_MICROS / 1_000);
+
+	private final HttpClient http;
+	private final String baseUrl;
+	private final LoadStats stats;
+	private final ObjectMapper mapper = JsonMapper.builder().build();
+
+	LoadClient(String baseUrl, LoadStats stats) {
+		this.http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		this.baseUrl = baseUrl;
+		this.stats = stats;
+	}
+
+	boolean signup(String username, String password, long intendedStart) throws InterruptedException {
+		return send(SIGNUP, post("/api/auth/signup", Map.of("username", username, "password", password)),
+				null, intendedStart) != null;
+	}
+
+	// The JWT, or null if the login failed
+	String login(String username, String password, long intendedStart) throws InterruptedException {
+		JsonNode body = send(LOGIN, post("/api/auth/login", Map.of("username", username, "password", password)),
+				null, intendedStart);
+		return body != null ? body.path("token").asString(null) : null;
+	}
+
+	void list(String token, long intendedStart) throws InterruptedException {
+		send(LIST, get("/api/notes"), token, intendedStart);
+	}
+
+	void page(String token, long intendedStart) throws InterruptedException {
+		send(PAGE, get("/api/notes/page?limit=20"), token, intendedStart);
+	}
+
+	void get(String token, long id, long intendedStart) throws InterruptedException {
+		send(GET, get("/api/notes/" + id), token, intendedStart);
+	}
+
+	// Id of the new note, or null if it wasn't created
+	Long create(String token, String title, String content, long intendedStart) throws InterruptedException {
+		JsonNode body = send(CREATE, post("/api/notes", Map.of("title", title, "content", content)),
+				token, intendedStart);
+		return body != null && body.path("id").isNumber() ? body.path("id").asLong() : null;
+	}
+
+	void update(String token, long id, String title, String content, long intendedStart)
+			throws InterruptedException {
+		send(UPDATE, request("/api/notes/" + id)
+				.PUT(json(Map.of("title", title, "content", content)))
+				.header("Content-Type", "application/json"), token, intendedStart);
+	}
+
+	void delete(String token, long id, long intendedStart) throws InterruptedException {
+		send(DELETE, request("/api/notes/" + id).DELETE(), token, intendedStart);
+	}
+
+	void preloadedList(String token, long intendedStart) throws InterruptedException {
+		send(PRELOADED_LIST, get("/api/notes"), token, intendedStart);
+	}
+
+	void preloadedPage(String token, long cursor, long intendedStart) throws InterruptedException {
+		send(PRELOADED_PAGE, get("/api/notes/page?limit=20&cursor=" + cursor), token, intendedStart);
+	}
+
+	/**
+	 * One POST /api/notes/batch; a successful call counts operations.size() items. Returns the
+	 * ids of the notes it created, or null if the whole call failed.
+	 */
+	List<Long> batch(String token, List<Map<String, Object>> operations, long intendedStart)
+			throws InterruptedException {
+		JsonNode body = send(BATCH, request("/api/notes/batch")
+				.POST(json(Map.of("operations", operations)))
+				.header("Content-Type", "application/json"), token, intendedStart);
+		if (body == null) {
+			return null;
+		}
+		stats.endpoint(BATCH).items(operations.size());
+		List<Long> ids = new ArrayList<>();
+		for (JsonNode result : body.path("results")) {
+			int status = result.path("status").asInt();
+			if ("create".equals(result.path("op").asString(null)) && status >= 200 && status < 300
+					&& result.path("id").isNumber()) {
+				ids.add(result.path("id").asLong());
+			}
+		}
+		return ids;
+	}
+
+	void utxos(String token, String address, long intendedStart) throws InterruptedException {
+		send(UTXOS, get("/api/cardano/utxos?address=" + URLEncoder.encode(address, StandardCharsets.UTF_8)),
+				token, intendedStart);
+	}
+
+	/**
+	 * Sends the request and records it under endpoint. Returns the parsed body of
+	 * a 2xx response (an empty node if there was none), or null on failure.
+	 */
+	private JsonNode send(String endpoint, HttpRequest.Builder request, String token, long intendedStart)
+			throws InterruptedException {
+		EndpointStats endpointStats = stats.endpoint(endpoint);
+		request.header(StatementCountFilter.ENDPOINT_HEADER, endpoint);
+		if (token != null) {
+			request.header("Authorization", "Bearer " + token);
+		}
+		HttpResponse<byte[]> response;
+		try {
+			response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+		} catch (IOException e) {
+			endpointStats.failure(0);
+			return null;
+		}
+		long micros = (System.nanoTime() - intendedStart) / 1_000;
+
+		int status = response.statusCode();
+		if (status < 200 || status >= 300) {
+			endpointStats.failure(status);
+			return null;
+		}
+		endpointStats.success(micros);
+
+		byte[] body = response.body();
+		if (body.length == 0) {
+			return mapper.createObjectNode();
+		}
+		try (InputStream in = decoded(response, body)) {
+			return mapper.readTree(in);
+		} catch (IOException | RuntimeException e) {
+			// Recorded as a success (the server answered); the caller just gets nothing to work with
+			return mapper.createObjectNode();
+		}
+	}
+
+	private static InputStream decoded(HttpResponse<byte[]> response, byte[] body) throws IOException {
+		InputStream in = new ByteArrayInputStream(body);
+		boolean gzip = response.headers().firstValue("Content-Encoding")
+				.map(encoding -> encoding.equalsIgnoreCase("gzip"))
+				.orElse(false);
+		return gzip ? new GZIPInputStream(in) : in;
+	}
+
+	private HttpRequest.Builder request(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(TIMEOUT)
+				.header("Accept", "application/json")
+				.header("Accept-Encoding", "gzip");
+	}
+
+	private HttpRequest.Builder get(String path) {
+		return request(path).GET();
+	}
+
+	private HttpRequest.Builder post(String path, Map<String, String> body) {
+		return request(path).POST(json(body)).header("Content-Type", "application/json");
+	}
+
+	private HttpRequest.BodyPublisher json(Object body) {
+		return HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body));
+	}
+}
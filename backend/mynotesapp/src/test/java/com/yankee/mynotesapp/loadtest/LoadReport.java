@@ -0,0 +1,153 @@
+package com.yankee.mynotesapp.loadtest;
+
+import lombok.Value;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Throughput and latency percentiles per endpoint over the measured window.
+ * Latencies are in milliseconds; errors are non-2xx responses and I/O
+ * failures, which are not part of the percentiles. stmts/req is the mean
+ * number of JDBC statements the server executed per request.
+ */
+final class LoadReport {
+
+	private static final String ROW = "%-32s %9s %7s %9s %9s %9s %9s %9s %10s%n";
+
+	private static final String COMPARE_ROW = "%-32s %16s %16s %14s %14s%n";
+
+	@Value
+	static class Row {
+		String endpoint;
+		Histogram latencies;
+		Map<Integer, Long> failures;
+		// Operations carried, when a call carries more than one (0 otherwise)
+		long items;
+		// Server-side statements per request, NaN when not counted
+		double statementsPerRequest;
+
+		long errors() {
+			return failures.values().stream().mapToLong(Long::longValue).sum();
+		}
+	}
+
+	private LoadReport() {
+	}
+
+	static String format(List<Row> rows, double seconds, String header) {
+		StringBuilder out = new StringBuilder(header).append('\n');
+		out.append(String.format(Locale.ROOT, ROW, "endpoint", "ok", "errors", "req/s", "p50", "p99", "p99.9", "max", "stmts/req"));
+
+		long totalOk = 0;
+		long totalErrors = 0;
+		for (Row row : rows) {
+			Histogram h = row.getLatencies();
+			long ok = h.getTotalCount();
+			totalOk += ok;
+			totalErrors += row.errors();
+			out.append(String.format(Locale.ROOT, ROW, row.getEndpoint(), ok, row.errors(),
+					rate(ok + row.errors(), seconds),
+					millis(h, 50.0), millis(h, 99.0), millis(h, 99.9),
+					ok == 0 ? "-" : String.format(Locale.ROOT, "%.2f", h.getMaxValue() / 1000.0),
+					Double.isNaN(row.getStatementsPerRequest()) ? "-"
+							: String.format(Locale.ROOT, "%.1f", row.getStatementsPerRequest())));
+		}
+		out.append(String.format(Locale.ROOT, ROW, "total", totalOk, totalErrors,
+				rate(totalOk + totalErrors, seconds), "", "", "", "", ""));
+
+		for (Row row : rows) {
+			if (row.getItems() > 0) {
+				out.append(String.format(Locale.ROOT, "%s carried %d operations (%s ops/s)%n",
+						row.getEndpoint(), row.getItems(), rate(row.getItems(), seconds)));
+			}
+		}
+		for (Row row : rows) {
+			if (!row.getFailures().isEmpty()) {
+				out.append(String.format(Locale.ROOT, "%s failures by status (0 = no response): %s%n",
+						row.getEndpoint(), row.getFailures()));
+			}
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Two runs of the same load side by side: requests/s and p99 (ms) per
+	 * endpoint, then the totals.
+	 */
+	static String compare(String nameA, List<Row> rowsA, double secondsA, String nameB, List<Row> rowsB,
+			double secondsB) {
+		Map<String, Row> byEndpointA = byEndpoint(rowsA);
+		Map<String, Row> byEndpointB = byEndpoint(rowsB);
+		Set<String> endpoints = new TreeSet<>(byEndpointA.keySet());
+		endpoints.addAll(byEndpointB.keySet());
+
+		StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "Comparison: %s vs %s%n", nameA, nameB));
+		out.append(String.format(Locale.ROOT, COMPARE_ROW, "endpoint",
+				"req/s " + nameA, "req/s " + nameB, "p99 " + nameA, "p99 " + nameB));
+		long totalA = 0;
+		long totalB = 0;
+		for (String endpoint : endpoints) {
+			Row a = byEndpointA.get(endpoint);
+			Row b = byEndpointB.get(endpoint);
+			long callsA = a == null ? 0 : a.getLatencies().getTotalCount() + a.errors();
+			long callsB = b == null ? 0 : b.getLatencies().getTotalCount() + b.errors();
+			totalA += callsA;
+			totalB += callsB;
+			out.append(String.format(Locale.ROOT, COMPARE_ROW, endpoint,
+					rate(callsA, secondsA), rate(callsB, secondsB),
+					a == null ? "-" : millis(a.getLatencies(), 99.0),
+					b == null ? "-" : millis(b.getLatencies(), 99.0)));
+		}
+		out.append(String.format(Locale.ROOT, COMPARE_ROW, "total",
+				rate(totalA, secondsA), rate(totalB, secondsB), "", ""));
+		return out.toString();
+	}
+
+	private static Map<String, Row> byEndpoint(List<Row> rows) {
+		Map<String, Row> map = new HashMap<>();
+		rows.forEach(row -> map.put(row.getEndpoint(), row));
+		return map;
+	}
+
+	/**
+	 * report.txt plus one HdrHistogram percentile file (.hgrm, milliseconds) per
+	 * endpoint, which the HdrHistogram plotter can overlay across runs.
+	 */
+	static void write(Path dir, String report, List<Row> rows) throws IOException {
+		Files.createDirectories(dir);
+		Files.writeString(dir.resolve("report.txt"), report, StandardCharsets.UTF_8);
+		for (Row row : rows) {
+			Path file = dir.resolve(fileName(row.getEndpoint()) + ".hgrm");
+			try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+				row.getLatencies().outputPercentileDistribution(out, 1000.0);
+			}
+		}
+	}
+
+	// "GET /api/notes/{id}" -> "GET_api_notes_id"
+	static String fileName(String endpoint) {
+		return endpoint.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+	}
+
+	private static String rate(long count, double seconds) {
+		return String.format(Locale.ROOT, "%.1f", seconds > 0 ? count / seconds : 0.0);
+	}
+
+	private static String millis(Histogram h, double percentile) {
+		if (h.getTotalCount() == 0) {
+			return "-";
+		}
+		return String.format(Locale.ROOT, "%.2f", h.getValueAtPercentile(percentile) / 1000.0);
+	}
+}
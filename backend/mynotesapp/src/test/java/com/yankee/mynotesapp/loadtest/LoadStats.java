@@ -0,0 +1,31 @@
+package com.yankee.mynotesapp.loadtest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-endpoint stats, created on first use
+final class LoadStats {
+
+	private final ConcurrentHashMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+	EndpointStats endpoint(String name) {
+		return endpoints.computeIfAbsent(name, EndpointStats::new);
+	}
+
+	// End of warmup: drop everything recorded so far
+	void reset() {
+		endpoints.values().forEach(EndpointStats::reset);
+	}
+
+	List<LoadReport.Row> snapshot() {
+		List<LoadReport.Row> rows = new ArrayList<>();
+		for (EndpointStats stats : endpoints.values()) {
+			rows.add(new LoadReport.Row(stats.getName(), stats.interval(), stats.failures(), stats.items(),
+					stats.statementsPerRequest()));
+		}
+		rows.sort(Comparator.comparing(LoadReport.Row::getEndpoint));
+		return rows;
+	}
+}
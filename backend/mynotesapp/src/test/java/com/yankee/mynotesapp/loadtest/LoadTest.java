@@ -0,0 +1,173 @@
+package com.yankee.mynotesapp.loadtest;
+
+import com.yankee.mynotesapp.MyNotesAppApplication;
+import com.yankee.mynotesapp.cardano.StubBlockfrostServer;
+import lombok.Value;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * End-to-end load test on one box: boots the application against an
+ * in-memory H2 database in MySQL mode and a StubBlockfrostServer, drives it
+ * over real HTTP with --concurrency virtual users for the warmup plus the
+ * measured duration, and reports throughput, p50/p99/p99.9 and the JDBC
+ * statements executed per request for each endpoint.
+ *
+ * Run with the load-test profile (see README), e.g.
+ *   mvn -Pload-test verify -DskipTests -Dload.args="--concurrency=64 --mix=read-heavy"
+ * or, comparing the full listing with keyset pages at 100k notes per user,
+ *   ... -Dload.args="--preload-notes=100000 --mix=preloaded-list=1"
+ *   ... -Dload.args="--preload-notes=100000 --mix=preloaded-page=1"
+ * or, running the same load on platform and then on virtual request threads
+ * (JDK 21+), ... -Dload.args="--compare-threads=true"
+ *
+ * Server and load generator share the JVM and the CPU, so compare runs made
+ * on the same machine with the same options rather than reading the numbers
+ * as production capacity.
+ */
+public final class LoadTest {
+
+	static final String VIRTUAL_THREADS = "spring.threads.virtual.enabled";
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestOptions options = LoadTestOptions.parse(args);
+		String runId = Long.toString(System.currentTimeMillis(), 36);
+
+		if (!options.isCompareThreads()) {
+			System.out.print(launch(options, runId, Map.of(), options.getReportDir()).getReport());
+			return;
+		}
+		// Same options and seed, a fresh application and database each time
+		Run platform = launch(options, runId + "-platform", Map.of(VIRTUAL_THREADS, "false"),
+				options.getReportDir().resolve("platform"));
+		System.out.print(platform.getReport());
+		Run virtual = launch(options, runId + "-virtual", Map.of(VIRTUAL_THREADS, "true"),
+				options.getReportDir().resolve("virtual"));
+		System.out.print(virtual.getReport());
+
+		String comparison = LoadReport.compare("platform", platform.getRows(), platform.getSeconds(),
+				"virtual", virtual.getRows(), virtual.getSeconds());
+		Files.writeString(options.getReportDir().resolve("comparison.txt"), comparison, StandardCharsets.UTF_8);
+		System.out.print(comparison);
+	}
+
+	@Value
+	private static class Run {
+		String report;
+		List<LoadReport.Row> rows;
+		double seconds;
+	}
+
+	// Boots the application with the given property overrides and runs the load against it
+	private static Run launch(LoadTestOptions options, String runId, Map<String, String> overrides, Path reportDir)
+			throws Exception {
+		try (StubBlockfrostServer blockfrost = new StubBlockfrostServer()) {
+			blockfrost.latency(options.getBlockfrostLatency());
+			List<String> wallets = new ArrayList<>();
+			for (int i = 0; i < options.getWallets(); i++) {
+				String address = "addr_test1load" + i;
+				blockfrost.syntheticWallet(address, options.getWalletUtxos());
+				wallets.add(address);
+			}
+
+			LoadStats stats = new LoadStats();
+			try (ConfigurableApplicationContext app = new SpringApplicationBuilder(MyNotesAppApplication.class)
+					.initializers(context -> ((GenericApplicationContext) context)
+							.registerBean(StatementCountFilter.class, () -> new StatementCountFilter(stats)))
+					.run(appArgs(options, runId, overrides, blockfrost.baseUrl()))) {
+				int port = app.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+				Run run = run(options, "http://127.0.0.1:" + port, runId, wallets, stats, reportDir,
+						app.getEnvironment().getProperty(VIRTUAL_THREADS, Boolean.class, false));
+				String blockfrostLine = String.format("Blockfrost stub: %d requests, peak %d in flight%n",
+						blockfrost.requestCount(), blockfrost.peakInFlight());
+				return new Run(run.getReport() + blockfrostLine, run.getRows(), run.getSeconds());
+			}
+		}
+	}
+
+	private static Run run(LoadTestOptions options, String baseUrl, String runId, List<String> wallets,
+			LoadStats stats, Path reportDir, boolean virtualThreads) throws Exception {
+		LoadClient client = new LoadClient(baseUrl, stats);
+		AtomicBoolean running = new AtomicBoolean(true);
+		NotePreloader.Account preloaded = options.getPreloadNotes() > 0
+				? NotePreloader.preload(client, runId, options.getPreloadNotes(), options.getSeed())
+				: null;
+
+		ExecutorService users = Executors.newFixedThreadPool(options.getConcurrency());
+		for (int i = 0; i < options.getConcurrency(); i++) {
+			users.execute(new VirtualUser(i, runId, client, options, wallets, preloaded, running));
+		}
+
+		List<LoadReport.Row> rows;
+		double seconds;
+		String heap;
+		try (HeapSampler heapSampler = new HeapSampler()) {
+			Thread.sleep(options.getWarmup().toMillis());
+			stats.reset();
+			heapSampler.reset();
+			long start = System.nanoTime();
+			Thread.sleep(options.getDuration().toMillis());
+			rows = stats.snapshot();
+			seconds = (System.nanoTime() - start) / 1e9;
+			heap = heapSampler.summary();
+		}
+
+		running.set(false);
+		users.shutdown();
+		if (!users.awaitTermination(60, TimeUnit.SECONDS)) {
+			users.shutdownNow();
+		}
+
+		String report = LoadReport.format(rows, seconds,
+				String.format("Load test %s over %.1fs on %s request threads: %s%n%s", runId, seconds,
+						virtualThreads ? "virtual" : "platform", options.describe(), heap));
+		LoadReport.write(reportDir, report, rows);
+		return new Run(report, rows, seconds);
+	}
+
+	// Later entries win, so --property=value options override the harness defaults
+	private static String[] appArgs(LoadTestOptions options, String runId, Map<String, String> overrides,
+			String blockfrostUrl) {
+		Map<String, String> properties = new LinkedHashMap<>();
+		properties.put("server.port", "0");
+		properties.put("management.server.port", "0");
+		properties.put("spring.datasource.url",
+				"jdbc:h2:mem:loadtest_" + runId.replace('-', '_')
+						+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1");
+		properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+		properties.put("spring.datasource.username", "sa");
+		properties.put("spring.datasource.password", "");
+		properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+		// H2 rejects the MySQL streaming fetch size
+		properties.put("notes.stream.fetch-size", "500");
+		properties.put("spring.jpa.properties.hibernate.session.events.auto", StatementCounter.class.getName());
+		properties.put("blockfrost.base-url", blockfrostUrl);
+		properties.put("blockfrost.api.key", "load-test");
+		// Every virtual user logs in from 127.0.0.1
+		properties.put("auth.rate-limit.enabled", "false");
+		properties.put("spring.main.banner-mode", "off");
+		properties.put("logging.level.root", "WARN");
+		properties.putAll(overrides);
+		properties.putAll(options.getAppProperties());
+
+		return properties.entrySet().stream()
+				.map(e -> "--" + e.getKey() + "=" + e.getValue())
+				.toArray(String[]::new);
+	}
+}
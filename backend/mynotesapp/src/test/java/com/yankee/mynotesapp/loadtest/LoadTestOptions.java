@@ -0,0 +1,103 @@
+package com.yankee.mynotesapp.loadtest;
+
+import com.yankee.mynotesapp.note.NoteBatchService;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Command line of LoadTest. Harness options are "--name=value"; any other
+ * "--property=value" is handed to the application, so app settings (pool
+ * sizes, caches, bcrypt strength...) can be varied per run.
+ */
+@Getter
+final class LoadTestOptions {
+
+	private int concurrency = 32;
+	private Duration warmup = Duration.ofSeconds(15);
+	private Duration duration = Duration.ofSeconds(60);
+	private ScenarioMix mix = ScenarioMix.parse("mixed");
+	// Actions per session, after its signup + login
+	private int sessionActions = 50;
+	// Requests per second per user; 0 runs closed-loop (no pacing)
+	private double ratePerUser = 0;
+	private int wallets = 100;
+	private int walletUtxos = 250;
+	// Operations per POST /api/notes/batch
+	private int batchSize = 20;
+	// Notes in the shared account the preloaded-* actions read
+	private int preloadNotes = 0;
+	private Duration blockfrostLatency = Duration.ofMillis(40);
+	private long seed = 42;
+	private Path reportDir = Path.of("target", "load-test");
+	// Run twice, on platform and then on virtual request threads, and compare
+	private boolean compareThreads = false;
+	private final Map<String, String> appProperties = new LinkedHashMap<>();
+
+	static LoadTestOptions parse(String[] args) {
+		LoadTestOptions options = new LoadTestOptions();
+		for (String arg : args) {
+			if (!arg.startsWith("--") || !arg.contains("=")) {
+				throw new IllegalArgumentException("Expected --name=value, got " + arg);
+			}
+			int eq = arg.indexOf('=');
+			options.set(arg.substring(2, eq), arg.substring(eq + 1));
+		}
+		if (options.concurrency < 1) {
+			throw new IllegalArgumentException("--concurrency must be at least 1");
+		}
+		if (options.wallets < 1) {
+			throw new IllegalArgumentException("--wallets must be at least 1");
+		}
+		if (options.batchSize < 1 || options.batchSize > NoteBatchService.MAX_OPERATIONS) {
+			throw new IllegalArgumentException("--batch-size must be between 1 and " + NoteBatchService.MAX_OPERATIONS);
+		}
+		boolean readsPreloaded = options.mix.uses(ScenarioMix.Action.PRELOADED_LIST)
+				|| options.mix.uses(ScenarioMix.Action.PRELOADED_PAGE);
+		if (readsPreloaded && options.preloadNotes < 1) {
+			throw new IllegalArgumentException("The preloaded-* actions need --preload-notes");
+		}
+		if (options.compareThreads) {
+			if (options.appProperties.containsKey(LoadTest.VIRTUAL_THREADS)) {
+				throw new IllegalArgumentException("--compare-threads sets " + LoadTest.VIRTUAL_THREADS + " itself");
+			}
+			if (Runtime.version().feature() < 21) {
+				throw new IllegalArgumentException("--compare-threads needs JDK 21 or later, this is "
+						+ Runtime.version().feature());
+			}
+		}
+		return options;
+	}
+
+	private void set(String name, String value) {
+		switch (name) {
+			case "concurrency" -> concurrency = Integer.parseInt(value);
+			case "warmup-seconds" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+			case "duration-seconds" -> duration = Duration.ofSeconds(Long.parseLong(value));
+			case "mix" -> mix = ScenarioMix.parse(value);
+			case "session-actions" -> sessionActions = Integer.parseInt(value);
+			case "rate-per-user" -> ratePerUser = Double.parseDouble(value);
+			case "wallets" -> wallets = Integer.parseInt(value);
+			case "wallet-utxos" -> walletUtxos = Integer.parseInt(value);
+			case "batch-size" -> batchSize = Integer.parseInt(value);
+			case "preload-notes" -> preloadNotes = Integer.parseInt(value);
+			case "blockfrost-latency-ms" -> blockfrostLatency = Duration.ofMillis(Long.parseLong(value));
+			case "seed" -> seed = Long.parseLong(value);
+			case "report-dir" -> reportDir = Path.of(value);
+			case "compare-threads" -> compareThreads = Boolean.parseBoolean(value);
+			default -> appProperties.put(name, value);
+		}
+	}
+
+	String describe() {
+		return String.format("concurrency=%d warmup=%ds duration=%ds mix=%s session-actions=%d rate-per-user=%s"
+						+ " wallets=%dx%d blockfrost-latency=%dms batch-size=%d%s%s",
+				concurrency, warmup.toSeconds(), duration.toSeconds(), mix, sessionActions,
+				ratePerUser > 0 ? ratePerUser + "/s" : "closed-loop", wallets, walletUtxos,
+				blockfrostLatency.toMillis(), batchSize, preloadNotes > 0 ? " preload-notes=" + preloadNotes : "",
+				appProperties.isEmpty() ? "" : " app=" + appProperties);
+	}
+}
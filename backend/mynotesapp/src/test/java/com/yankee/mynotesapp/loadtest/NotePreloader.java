@@ -0,0 +1,65 @@
+package com.yankee.mynotesapp.loadtest;
+
+import com.yankee.mynotesapp.note.NoteBatchService;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills one shared account with --preload-notes notes through the batch
+ * endpoint before the users start, for the preloaded-* actions. The calls are
+ * recorded like any other but fall before the warmup reset, so they don't
+ * show up in the report.
+ */
+final class NotePreloader {
+
+	@Value
+	static class Account {
+		String token;
+		long firstNoteId;
+		long lastNoteId;
+	}
+
+	private NotePreloader() {
+	}
+
+	static Account preload(LoadClient client, String runId, int notes, long seed) throws InterruptedException {
+		String username = "load-" + runId + "-preloaded@example.com";
+		String password = "pw-preloaded";
+		if (!client.signup(username, password, System.nanoTime())) {
+			throw new IllegalStateException("Could not sign up the preloaded account");
+		}
+		String token = client.login(username, password, System.nanoTime());
+		if (token == null) {
+			throw new IllegalStateException("Could not log in to the preloaded account");
+		}
+
+		long start = System.nanoTime();
+		SplittableRandom random = new SplittableRandom(seed);
+		long first = Long.MAX_VALUE;
+		long last = Long.MIN_VALUE;
+		int created = 0;
+		while (created < notes) {
+			int count = Math.min(NoteBatchService.MAX_OPERATIONS, notes - created);
+			List<Map<String, Object>> operations = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				operations.add(Map.of("op", "create", "title", "Preloaded " + (created + i),
+						"content", VirtualUser.content(random)));
+			}
+			List<Long> ids = client.batch(token, operations, System.nanoTime());
+			if (ids == null || ids.size() != count) {
+				throw new IllegalStateException("Preloading failed after " + created + " notes");
+			}
+			for (long id : ids) {
+				first = Math.min(first, id);
+				last = Math.max(last, id);
+			}
+			created += count;
+		}
+		System.out.printf("Preloaded %d notes in %.1fs%n", created, (System.nanoTime() - start) / 1e9);
+		return new Account(token, first, last);
+	}
+}
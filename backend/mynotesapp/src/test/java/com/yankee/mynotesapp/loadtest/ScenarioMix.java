@@ -0,0 +1,122 @@
+package com.yankee.mynotesapp.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Relative weights of the actions a virtual user performs once logged in.
+ * Signup and login are not part of the mix: every session starts with them,
+ * so their share follows from --session-actions.
+ *
+ * Given either as a preset name or as "list=40,get=20,create=10,...".
+ *
+ * The preloaded-* actions read one shared account that LoadTest fills with
+ * --preload-notes notes before the run, to compare the full listing with a
+ * keyset page at 10k / 100k notes per user.
+ */
+final class ScenarioMix {
+
+	enum Action {
+		LIST("list"),         // GET /api/notes
+		PAGE("page"),         // GET /api/notes/page
+		GET("get"),           // GET /api/notes/{id}
+		CREATE("create"),     // POST /api/notes
+		UPDATE("update"),     // PUT /api/notes/{id}
+		DELETE("delete"),     // DELETE /api/notes/{id}
+		UTXOS("utxos"),       // GET /api/cardano/utxos
+		BATCH("batch"),       // POST /api/notes/batch with --batch-size creates / updates / deletes
+		PRELOADED_LIST("preloaded-list"),  // GET /api/notes on the preloaded account
+		PRELOADED_PAGE("preloaded-page");  // GET /api/notes/page at a random cursor on it
+
+		private final String key;
+
+		Action(String key) {
+			this.key = key;
+		}
+	}
+
+	static final Map<String, String> PRESETS = Map.of(
+			"mixed", "list=25,page=10,get=20,create=15,update=15,delete=5,utxos=10",
+			"read-heavy", "list=40,page=20,get=30,create=4,update=4,delete=1,utxos=1",
+			"write-heavy", "list=10,page=5,get=10,create=35,update=30,delete=10",
+			"cardano", "list=10,get=5,create=5,utxos=80",
+			"preloaded", "preloaded-list=1,preloaded-page=1",
+			// Same writes one request per note, or --batch-size per request
+			"single-writes", "create=50,update=35,delete=15",
+			"batched-writes", "batch=1");
+
+	private final String spec;
+	private final Action[] actions;
+	// Running totals of the weights, same order as actions
+	private final int[] cumulative;
+
+	private ScenarioMix(String spec, Map<Action, Integer> weights) {
+		this.spec = spec;
+		this.actions = weights.keySet().toArray(new Action[0]);
+		this.cumulative = new int[actions.length];
+		int total = 0;
+		for (int i = 0; i < actions.length; i++) {
+			total += weights.get(actions[i]);
+			cumulative[i] = total;
+		}
+	}
+
+	static ScenarioMix parse(String spec) {
+		String weights = PRESETS.getOrDefault(spec.trim().toLowerCase(Locale.ROOT), spec);
+		Map<Action, Integer> parsed = new EnumMap<>(Action.class);
+		for (String part : weights.split(",")) {
+			String[] kv = part.trim().split("=", 2);
+			if (kv.length != 2) {
+				throw new IllegalArgumentException("Expected action=weight, got '" + part.trim() + "' in mix " + spec);
+			}
+			Action action = action(kv[0].trim());
+			int weight = Integer.parseInt(kv[1].trim());
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative weight for " + kv[0].trim());
+			}
+			if (weight > 0) {
+				parsed.merge(action, weight, Integer::sum);
+			}
+		}
+		if (parsed.isEmpty()) {
+			throw new IllegalArgumentException("Mix " + spec + " has no action with a positive weight");
+		}
+		return new ScenarioMix(spec, parsed);
+	}
+
+	private static Action action(String key) {
+		for (Action action : Action.values()) {
+			if (action.key.equalsIgnoreCase(key)) {
+				return action;
+			}
+		}
+		throw new IllegalArgumentException("Unknown action '" + key + "' (expected one of list, page, get, create,"
+				+ " update, delete, utxos, batch, preloaded-list, preloaded-page)");
+	}
+
+	boolean uses(Action action) {
+		for (Action a : actions) {
+			if (a == action) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// roll is uniform in [0, 1)
+	Action pick(double roll) {
+		int target = (int) (roll * cumulative[cumulative.length - 1]);
+		for (int i = 0; i < cumulative.length; i++) {
+			if (target < cumulative[i]) {
+				return actions[i];
+			}
+		}
+		return actions[actions.length - 1];
+	}
+
+	@Override
+	public String toString() {
+		return spec;
+	}
+}
@@ -0,0 +1,64 @@
+package com.yankee.mynotesapp.loadtest;
+
+import com.yankee.mynotesapp.loadtest.ScenarioMix.Action;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScenarioMixTests {
+
+	@Test
+	void picksInProportionToWeights() {
+		ScenarioMix mix = ScenarioMix.parse("list=3,create=1");
+		Map<Action, Integer> counts = new EnumMap<>(Action.class);
+		SplittableRandom random = new SplittableRandom(1);
+		for (int i = 0; i < 40_000; i++) {
+			counts.merge(mix.pick(random.nextDouble()), 1, Integer::sum);
+		}
+
+		assertEquals(2, counts.size());
+		assertEquals(30_000.0, counts.get(Action.LIST), 600.0);
+		assertEquals(10_000.0, counts.get(Action.CREATE), 600.0);
+	}
+
+	@Test
+	void edgesOfTheRollStayInRange() {
+		ScenarioMix mix = ScenarioMix.parse("get=1,utxos=1");
+		assertEquals(Action.GET, mix.pick(0.0));
+		assertEquals(Action.UTXOS, mix.pick(Math.nextDown(1.0)));
+	}
+
+	@Test
+	void presetsAndZeroWeights() {
+		ScenarioMix cardano = ScenarioMix.parse("cardano");
+		assertEquals("cardano", cardano.toString());
+		// delete=0 never comes up
+		ScenarioMix noDeletes = ScenarioMix.parse("create=1,delete=0");
+		for (int i = 0; i < 100; i++) {
+			assertEquals(Action.CREATE, noDeletes.pick(i / 100.0));
+		}
+		for (String preset : ScenarioMix.PRESETS.keySet()) {
+			assertNotNull(ScenarioMix.parse(preset).pick(0.5));
+		}
+	}
+
+	@Test
+	void usesOnlyActionsWithPositiveWeight() {
+		ScenarioMix mix = ScenarioMix.parse("preloaded-page=1,list=0");
+		assertTrue(mix.uses(Action.PRELOADED_PAGE));
+		assertFalse(mix.uses(Action.LIST));
+		assertFalse(mix.uses(Action.PRELOADED_LIST));
+	}
+
+	@Test
+	void rejectsBadSpecs() {
+		assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("browse=5"));
+		assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("list"));
+		assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("list=-1"));
+		assertThrows(IllegalArgumentException.class, () -> ScenarioMix.parse("list=0"));
+	}
+}
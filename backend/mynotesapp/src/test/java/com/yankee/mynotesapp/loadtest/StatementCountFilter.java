@@ -0,0 +1,47 @@
+package com.yankee.mynotesapp.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Outermost filter of the application under test: counts the statements each
+ * request executes (see StatementCounter) and records them under the endpoint
+ * the client named in the X-Load-Endpoint header.
+ */
+final class StatementCountFilter extends OncePerRequestFilter implements Ordered {
+
+	static final String ENDPOINT_HEADER = "X-Load-Endpoint";
+
+	private final LoadStats stats;
+
+	StatementCountFilter(LoadStats stats) {
+		this.stats = stats;
+	}
+
+	@Override
+	public int getOrder() {
+		return Ordered.HIGHEST_PRECEDENCE;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String endpoint = request.getHeader(ENDPOINT_HEADER);
+		if (endpoint == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+		StatementCounter.start();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			stats.endpoint(endpoint).statements(StatementCounter.stop());
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.yankee.mynotesapp.loadtest;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts the JDBC statements Hibernate executes on the current thread between
+ * start() and stop(); a JDBC batch counts once, since it is one round trip.
+ * Registered through hibernate.session.events.auto, which instantiates it per
+ * session, so the count lives in a thread local rather than on the instance.
+ *
+ * Statements run through JdbcTemplate, or on another thread than the request's
+ * (the login verification pool), are not seen.
+ */
+public class StatementCounter implements SessionEventListener {
+
+	private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+	static void start() {
+		COUNT.set(new long[1]);
+	}
+
+	static long stop() {
+		long[] count = COUNT.get();
+		COUNT.remove();
+		return count == null ? 0 : count[0];
+	}
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		increment();
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		increment();
+	}
+
+	private static void increment() {
+		long[] count = COUNT.get();
+		if (count != null) {
+			count[0]++;
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package com.yankee.mynotesapp.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One simulated client, run on its own thread. Works in sessions: sign up a
+ * fresh account, log in, then perform sessionActions actions drawn from the
+ * mix against its own notes; repeat until stopped.
+ *
+ * With a rate, every request has a scheduled start time (1 / rate apart) and
+ * latency is measured from that time, not from when the request actually
+ * went out. A stalled server therefore shows up as the queueing delay real
+ * clients would see, rather than as one slow request followed by a pause in
+ * sending (coordinated omission). Without a rate the user runs closed-loop,
+ * back to back.
+ */
+final class VirtualUser implements Runnable {
+
+	private static final String PARAGRAPH = "<p>Load test note: agenda, decisions and <strong>follow-ups</strong>"
+			+ " for the weekly sync.</p>";
+
+	private final int id;
+	private final String runId;
+	private final LoadClient client;
+	private final ScenarioMix mix;
+	private final int sessionActions;
+	private final int batchSize;
+	private final List<String> wallets;
+	private final NotePreloader.Account preloaded;
+	private final AtomicBoolean running;
+	private final long intervalNanos;
+	private final SplittableRandom random;
+
+	private final List<Long> noteIds = new ArrayList<>();
+	private long nextStart;
+	private int sessions;
+
+	VirtualUser(int id, String runId, LoadClient client, LoadTestOptions options, List<String> wallets,
+			NotePreloader.Account preloaded, AtomicBoolean running) {
+		this.id = id;
+		this.runId = runId;
+		this.client = client;
+		this.mix = options.getMix();
+		this.sessionActions = options.getSessionActions();
+		this.batchSize = options.getBatchSize();
+		this.wallets = wallets;
+		this.preloaded = preloaded;
+		this.running = running;
+		this.intervalNanos = options.getRatePerUser() > 0 ? (long) (1e9 / options.getRatePerUser()) : 0;
+		this.random = new SplittableRandom(options.getSeed() + id);
+	}
+
+	@Override
+	public void run() {
+		nextStart = System.nanoTime();
+		try {
+			while (running.get()) {
+				session();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void session() throws InterruptedException {
+		noteIds.clear();
+		String username = "load-" + runId + "-" + id + "-" + (sessions++) + "@example.com";
+		String password = "pw-" + random.nextInt(1_000_000);
+
+		if (!client.signup(username, password, slot())) {
+			return;
+		}
+		String token = client.login(username, password, slot());
+		if (token == null) {
+			return;
+		}
+
+		for (int i = 0; i < sessionActions && running.get(); i++) {
+			perform(token, mix.pick(random.nextDouble()));
+		}
+	}
+
+	private void perform(String token, ScenarioMix.Action action) throws InterruptedException {
+		// Reads and writes of a single note need one to exist first
+		if (noteIds.isEmpty() && (action == ScenarioMix.Action.GET || action == ScenarioMix.Action.UPDATE
+				|| action == ScenarioMix.Action.DELETE)) {
+			action = ScenarioMix.Action.CREATE;
+		}
+
+		switch (action) {
+			case LIST -> client.list(token, slot());
+			case PAGE -> client.page(token, slot());
+			case GET -> client.get(token, anyNote(), slot());
+			case CREATE -> {
+				Long created = client.create(token, "Note " + noteIds.size(), content(random), slot());
+				if (created != null) {
+					noteIds.add(created);
+				}
+			}
+			case UPDATE -> client.update(token, anyNote(), "Edited " + random.nextInt(1000), content(random), slot());
+			case DELETE -> {
+				long noteId = noteIds.remove(random.nextInt(noteIds.size()));
+				client.delete(token, noteId, slot());
+			}
+			case BATCH -> batch(token);
+			case UTXOS -> client.utxos(token, wallets.get(random.nextInt(wallets.size())), slot());
+			case PRELOADED_LIST -> client.preloadedList(preloaded.getToken(), slot());
+			case PRELOADED_PAGE -> client.preloadedPage(preloaded.getToken(), preloaded.getFirstNoteId()
+					+ random.nextLong(preloaded.getLastNoteId() - preloaded.getFirstNoteId() + 1), slot());
+		}
+	}
+
+	// The single-writes proportions (half creates, a third updates, the rest deletes) in one call
+	private void batch(String token) throws InterruptedException {
+		List<Map<String, Object>> operations = new ArrayList<>(batchSize);
+		Set<Long> touched = new HashSet<>();
+		for (int i = 0; i < batchSize; i++) {
+			int roll = random.nextInt(100);
+			// Each existing note at most once per batch, so a delete can't precede an update of the same note
+			Long target = noteIds.isEmpty() ? null : anyNote();
+			if (roll < 50 || target == null || !touched.add(target)) {
+				operations.add(Map.of("op", "create", "title", "Batched " + i, "content", content(random)));
+			} else if (roll < 85) {
+				operations.add(Map.of("op", "update", "id", target, "title", "Edited " + random.nextInt(1000),
+						"content", content(random)));
+			} else {
+				operations.add(Map.of("op", "delete", "id", target));
+				noteIds.remove(target);
+			}
+		}
+		List<Long> created = client.batch(token, operations, slot());
+		if (created != null) {
+			noteIds.addAll(created);
+		}
+	}
+
+	/**
+	 * Start time the next request is measured from. Paced users wait for their
+	 * slot; if they are already behind, they send at once and the delay counts.
+	 */
+	private long slot() {
+		if (intervalNanos == 0) {
+			return System.nanoTime();
+		}
+		long scheduled = nextStart;
+		nextStart += intervalNanos;
+		long wait;
+		while ((wait = scheduled - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(wait);
+		}
+		return scheduled;
+	}
+
+	private long anyNote() {
+		return noteIds.get(random.nextInt(noteIds.size()));
+	}
+
+	// Between 0.5 and 4 KB of editor HTML, so some notes cross the compression threshold
+	static String content(SplittableRandom random) {
+		return PARAGRAPH.repeat(5 + random.nextInt(35));
+	}
+}
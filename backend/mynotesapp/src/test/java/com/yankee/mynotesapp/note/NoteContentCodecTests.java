@@ -0,0 +1,32 @@
+package com.yankee.mynotesapp.note;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoteContentCodecTests {
+
+	@Test
+	void utf8LengthMatchesEncodedSize() {
+		String[] samples = { "", "plain ascii", "café déjà vu", "€ and ₿", "emoji 😀 pair", "lone \uD83D high",
+				"lone \uDE00 low", "end \uD83D" };
+		for (String sample : samples) {
+			assertEquals((long) sample.getBytes(StandardCharsets.UTF_8).length, NoteContentCodec.utf8Length(sample), sample);
+		}
+	}
+
+	@Test
+	void compressedContentStreamsBackItsUtf8Bytes() throws Exception {
+		NoteContentCodec codec = new NoteContentCodec(true, 16, 1);
+		String content = "ünïcödé ".repeat(200);
+
+		byte[] stored = codec.encode(content);
+
+		assertEquals(NoteContentCodec.DEFLATE, stored[0]);
+		byte[] decoded = codec.decodeStream(new ByteArrayInputStream(stored)).readAllBytes();
+		assertEquals(NoteContentCodec.utf8Length(content), (long) decoded.length);
+	}
+}
@@ -0,0 +1,82 @@
+package com.yankee.mynotesapp.note;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoteSearchIndexTests {
+
+	@Test
+	void titleMatchesRankAboveContentMatches() {
+		NoteSearchIndex index = new NoteSearchIndex();
+		index.index(1L, 10L, "Groceries", "buy milk and bread");
+		index.index(1L, 11L, "Milk plan", "weekly shopping");
+
+		NoteSearchResult result = index.search(1L, "milk ", 0, 10);
+
+		assertEquals(2, result.getTotal());
+		assertEquals(11L, result.getItems().get(0).getId());
+	}
+
+	@Test
+	void lastWordMatchesAsPrefix() {
+		NoteSearchIndex index = new NoteSearchIndex();
+		index.index(1L, 10L, "Team meeting", "<p>agenda&nbsp;items</p>");
+
+		assertEquals(1, index.search(1L, "meet", 0, 10).getTotal());
+		assertEquals(0, index.search(1L, "meet ", 0, 10).getTotal());
+		assertEquals(0, index.search(1L, "nbsp", 0, 10).getTotal());
+	}
+
+	@Test
+	void updatesAndDeletesAreReflected() {
+		NoteSearchIndex index = new NoteSearchIndex();
+		index.index(1L, 10L, "Draft", "old words");
+		index.index(1L, 10L, null, "new words");
+
+		assertEquals(0, index.search(1L, "old ", 0, 10).getTotal());
+		assertEquals(1, index.search(1L, "draft ", 0, 10).getTotal());
+
+		index.remove(1L, 10L);
+		assertEquals(0, index.search(1L, "words ", 0, 10).getTotal());
+	}
+
+	@Test
+	void usersAreIsolatedAndResultsPaginate() {
+		NoteSearchIndex index = new NoteSearchIndex();
+		for (long id = 1; id <= 25; id++) {
+			index.index(1L, id, "note " + id, "shared text");
+		}
+		index.index(2L, 100L, "other", "shared text");
+
+		NoteSearchResult second = index.search(1L, "shared ", 1, 10);
+		assertEquals(25, second.getTotal());
+		assertEquals(10, second.getItems().size());
+		assertTrue(second.getItems().stream().noneMatch(hit -> hit.getId() == 100L));
+		assertEquals(List.of("hello", "world"), NoteSearchIndex.tokenize("Hello, <b>World</b>!"));
+	}
+
+
+	@Test
+	void pagesPastTheLastMatchAreEmpty() {
+		NoteSearchIndex index = new NoteSearchIndex();
+		index.index(1L, 10L, "Groceries", "buy milk");
+		index.index(1L, 11L, "Milk plan", "weekly shopping");
+
+		assertEquals(1, index.search(1L, "milk ", 1, 1).getItems().size());
+		NoteSearchResult deep = index.search(1L, "milk ", Integer.MAX_VALUE, 200);
+		assertEquals(2, deep.getTotal());
+		assertTrue(deep.getItems().isEmpty());
+	}
+
+	@Test
+	void contentPastTheLimitIsNotIndexed() {
+		NoteSearchIndex index = new NoteSearchIndex(20);
+		index.index(1L, 10L, "Long note", "early words here then the rest trails off");
+
+		assertEquals(1, index.search(1L, "early ", 0, 10).getTotal());
+		assertEquals(0, index.search(1L, "trails ", 0, 10).getTotal());
+	}
+}
@@ -0,0 +1,129 @@
+package com.yankee.mynotesapp.note;
+
+import com.yankee.mynotesapp.repository.NoteRepository;
+import com.yankee.mynotesapp.repository.NoteTombstoneRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NoteSyncServiceTests {
+
+	private static final long USER = 1L;
+	private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+	private final List<Note> notes = new ArrayList<>();
+	private final List<NoteTombstone> tombstones = new ArrayList<>();
+	private final AtomicLong clock = new AtomicLong(START.toEpochMilli());
+	private final NoteSyncService service = new NoteSyncService(noteRepository(), tombstoneRepository(), 30,
+			clock::get);
+
+	@Test
+	void compactionBetweenPagesExpiresTheContinuationCursor() {
+		String cursor = (String) service.changesSince(USER, null, 10).get("cursor");
+		note(1);
+		note(2);
+		tombstone(3, START.plus(Duration.ofHours(1)));
+		note(4);
+
+		clock.set(START.plus(Duration.ofDays(29)).toEpochMilli());
+		Map<String, Object> first = service.changesSince(USER, cursor, 2);
+		assertEquals(true, first.get("hasMore"));
+		assertEquals(START.toEpochMilli(), NoteSyncCursor.decode((String) first.get("cursor")).getIssuedAtMillis());
+
+		// Past retention for the delete at seq 3: the compactor purges it before the next page
+		clock.set(START.plus(Duration.ofDays(30)).plus(Duration.ofHours(2)).toEpochMilli());
+		tombstoneRepository().deleteOlderThan(Instant.ofEpochMilli(clock.get()).minus(Duration.ofDays(30)));
+
+		ResponseStatusException gone = assertThrows(ResponseStatusException.class,
+				() -> service.changesSince(USER, (String) first.get("cursor"), 2));
+		assertEquals(HttpStatus.GONE, gone.getStatusCode());
+	}
+
+	@Test
+	void caughtUpClientGetsAFreshCursor() {
+		note(1);
+		clock.set(START.plus(Duration.ofDays(1)).toEpochMilli());
+
+		Map<String, Object> page = service.changesSince(USER, new NoteSyncCursor(0, START.toEpochMilli()).encode(), 10);
+
+		assertEquals(false, page.get("hasMore"));
+		assertEquals(clock.get(), NoteSyncCursor.decode((String) page.get("cursor")).getIssuedAtMillis());
+	}
+
+	@Test
+	void initialSyncIncludesNotesWrittenBeforeChangeSequences() {
+		note(0);
+		note(1);
+
+		Map<String, Object> page = service.changesSince(USER, null, 10);
+
+		List<?> updated = (List<?>) page.get("updated");
+		assertEquals(2, updated.size());
+		assertEquals(0L, ((Note) updated.get(0)).getChangeSeq());
+		assertEquals(1L, NoteSyncCursor.decode((String) page.get("cursor")).getSeq());
+	}
+
+	private void note(long seq) {
+		Note note = new Note();
+		note.setId(seq);
+		note.setChangeSeq(seq);
+		notes.add(note);
+	}
+
+	private void tombstone(long seq, Instant deletedAt) {
+		tombstones.add(new NoteTombstone(seq, 100 + seq, USER, seq, deletedAt));
+	}
+
+	private NoteRepository noteRepository() {
+		return fake(NoteRepository.class, Map.of("findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc", args -> {
+			long since = (Long) args[1];
+			return notes.stream()
+					.filter(n -> n.getChangeSeq() > since)
+					.sorted(Comparator.comparing(Note::getChangeSeq))
+					.limit(((Pageable) args[2]).getPageSize())
+					.toList();
+		}));
+	}
+
+	private NoteTombstoneRepository tombstoneRepository() {
+		return fake(NoteTombstoneRepository.class, Map.of(
+				"findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc", args -> {
+					long since = (Long) args[1];
+					return tombstones.stream()
+							.filter(t -> t.getChangeSeq() > since)
+							.sorted(Comparator.comparingLong(NoteTombstone::getChangeSeq))
+							.limit(((Pageable) args[2]).getPageSize())
+							.toList();
+				},
+				"deleteOlderThan", args -> {
+					int before = tombstones.size();
+					tombstones.removeIf(t -> t.getDeletedAt().isBefore((Instant) args[0]));
+					return before - tombstones.size();
+				}));
+	}
+
+	// Repository backed by the lists above; only the given methods work
+	private static <T> T fake(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+		return type.cast(Proxy.newProxyInstance(NoteSyncServiceTests.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					Function<Object[], Object> body = methods.get(method.getName());
+					if (body == null) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					return body.apply(args);
+				}));
+	}
+}
@@ -0,0 +1,51 @@
+package com.yankee.mynotesapp.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTests {
+
+	@Test
+	void burstThenRefill() {
+		AtomicLong now = new AtomicLong(1_000_000);
+		TokenBucketLimiter limiter = new TokenBucketLimiter(3, 100, 10, now::get);
+
+		assertEquals(0, limiter.tryAcquire("a"));
+		assertEquals(0, limiter.tryAcquire("a"));
+		assertEquals(0, limiter.tryAcquire("a"));
+		assertEquals(100, limiter.tryAcquire("a"));
+		// Other keys have their own bucket
+		assertEquals(0, limiter.tryAcquire("b"));
+
+		now.addAndGet(100);
+		assertEquals(0, limiter.tryAcquire("a"));
+		assertTrue(limiter.tryAcquire("a") > 0);
+		assertEquals(2, limiter.getRejected());
+	}
+
+	@Test
+	void idleKeysAreEvictedFirst() {
+		AtomicLong now = new AtomicLong(1_000_000);
+		TokenBucketLimiter limiter = new TokenBucketLimiter(5, 100, 100, now::get);
+
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire("idle-" + i);
+		}
+		now.addAndGet(1_000);
+		limiter.tryAcquire("busy");
+		limiter.tryAcquire("busy");
+		limiter.tryAcquire("new");
+
+		assertTrue(limiter.size() <= 100);
+		assertEquals(2, limiter.size());
+		// "busy" kept its state: three more tokens, then refused
+		limiter.tryAcquire("busy");
+		limiter.tryAcquire("busy");
+		limiter.tryAcquire("busy");
+		assertTrue(limiter.tryAcquire("busy") > 0);
+	}
+
+}
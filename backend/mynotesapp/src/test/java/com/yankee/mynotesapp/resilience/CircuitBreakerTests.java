@@ -0,0 +1,94 @@
+package com.yankee.mynotesapp.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTests {
+
+	@Test
+	void opensAtFailureRateAndFailsFast() {
+		AtomicLong now = new AtomicLong(1_000);
+		CircuitBreaker breaker = new CircuitBreaker(10, 4, 0.5, 1_000, 2, now::get);
+
+		breaker.onSuccess(breaker.tryAcquire());
+		breaker.onFailure(breaker.tryAcquire());
+		breaker.onSuccess(breaker.tryAcquire());
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		// 2 of 4 failed
+		breaker.onFailure(breaker.tryAcquire());
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(-1, breaker.tryAcquire());
+		assertEquals(1, breaker.getNotPermitted());
+		assertEquals(1_000, breaker.getRemainingOpenNanos());
+	}
+
+	@Test
+	void halfOpenProbesCloseOrReopen() {
+		AtomicLong now = new AtomicLong(1_000);
+		CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, 1_000, 2, now::get);
+		List<String> transitions = new ArrayList<>();
+		breaker.setListener((from, to) -> transitions.add(from + "->" + to));
+
+		breaker.onFailure(breaker.tryAcquire());
+		breaker.onFailure(breaker.tryAcquire());
+		now.addAndGet(1_000);
+
+		// Two probes allowed, the third waits
+		long first = breaker.tryAcquire();
+		long second = breaker.tryAcquire();
+		assertTrue(first >= 0 && second >= 0);
+		assertEquals(-1, breaker.tryAcquire());
+		breaker.onSuccess(first);
+		breaker.onFailure(second);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		now.addAndGet(1_000);
+		breaker.onSuccess(breaker.tryAcquire());
+		breaker.onSuccess(breaker.tryAcquire());
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+		assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->OPEN", "OPEN->HALF_OPEN",
+				"HALF_OPEN->CLOSED"), transitions);
+		assertEquals(2, breaker.getTransitionsTo(CircuitBreaker.State.OPEN));
+	}
+
+	@Test
+	void outcomesFromAnEarlierStateAreIgnored() {
+		AtomicLong now = new AtomicLong(1_000);
+		CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, 1_000, 1, now::get);
+
+		long slowCall = breaker.tryAcquire();
+		breaker.onFailure(breaker.tryAcquire());
+		breaker.onFailure(breaker.tryAcquire());
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+		now.addAndGet(1_000);
+		long probe = breaker.tryAcquire();
+		// The call that started while CLOSED finishes now: it is not the probe
+		breaker.onSuccess(slowCall);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+		breaker.onSuccess(probe);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void failuresAgeOutOfTheWindow() {
+		CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, 1_000, 1, () -> 0L);
+
+		breaker.onFailure(breaker.tryAcquire());
+		for (int i = 0; i < 6; i++) {
+			breaker.onSuccess(breaker.tryAcquire());
+		}
+		breaker.onFailure(breaker.tryAcquire());
+
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		assertEquals(0.25, breaker.getFailureRate(), 1e-9);
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.yankee.mynotesapp.resilience;
+
+import com.yankee.mynotesapp.cardano.StubBlockfrostServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceInterceptorTests {
+
+	@Test
+	void openCircuitStopsCallingUpstreamUntilProbesSucceed() throws Exception {
+		AtomicLong now = new AtomicLong(1_000);
+		CircuitBreaker breaker = new CircuitBreaker(10, 5, 0.5, 1_000_000, 1, now::get);
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().utxos("addr_ok", "[]").failNext(5, 503)) {
+			RestTemplate rest = restTemplate(stub, breaker, new Bulkhead(4, 100));
+
+			for (int i = 0; i < 5; i++) {
+				assertThrows(HttpServerErrorException.class, () -> fetch(rest, "addr_ok"));
+			}
+			assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+			UpstreamUnavailableException refused = assertThrows(UpstreamUnavailableException.class,
+					() -> fetch(rest, "addr_ok"));
+			assertTrue(refused.getRetryAfterSeconds() >= 1);
+			// Refused calls never reach the upstream
+			assertEquals(5, stub.requestCount());
+
+			now.addAndGet(1_000_000);
+			assertEquals("[]", fetch(rest, "addr_ok"));
+			assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		}
+	}
+
+	@Test
+	void notFoundDoesNotCountAsFailure() throws Exception {
+		CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, 60_000_000_000L, 1);
+		try (StubBlockfrostServer stub = new StubBlockfrostServer()) {
+			RestTemplate rest = restTemplate(stub, breaker, new Bulkhead(4, 100));
+
+			for (int i = 0; i < 4; i++) {
+				assertThrows(HttpClientErrorException.NotFound.class, () -> fetch(rest, "addr_unused"));
+			}
+			assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+		}
+	}
+
+	@Test
+	void forbiddenOpensTheCircuit() throws Exception {
+		CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, 60_000_000_000L, 1);
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().failNext(2, 403)) {
+			RestTemplate rest = restTemplate(stub, breaker, new Bulkhead(4, 100));
+
+			assertThrows(HttpClientErrorException.Forbidden.class, () -> fetch(rest, "addr_x"));
+			assertThrows(HttpClientErrorException.Forbidden.class, () -> fetch(rest, "addr_x"));
+			assertThrows(UpstreamUnavailableException.class, () -> fetch(rest, "addr_x"));
+		}
+	}
+
+	@Test
+	void bulkheadCapsCallsInFlight() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(2, 0);
+		CircuitBreaker breaker = new CircuitBreaker(10, 10, 0.5, 60_000_000_000L, 1);
+		ExecutorService callers = Executors.newFixedThreadPool(6);
+		try (StubBlockfrostServer stub = new StubBlockfrostServer().utxos("addr_slow", "[]")
+				.latency(Duration.ofMillis(300))) {
+			RestTemplate rest = restTemplate(stub, breaker, bulkhead);
+
+			List<Future<String>> calls = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				calls.add(callers.submit(() -> fetch(rest, "addr_slow")));
+			}
+			int ok = 0;
+			int refused = 0;
+			for (Future<String> call : calls) {
+				try {
+					call.get();
+					ok++;
+				} catch (Exception e) {
+					assertInstanceOf(UpstreamUnavailableException.class, e.getCause());
+					refused++;
+				}
+			}
+
+			assertEquals(2, ok);
+			assertEquals(4, refused);
+			assertEquals(4, bulkhead.getRejected());
+			assertTrue(stub.peakInFlight() <= 2);
+			assertEquals(0, bulkhead.getInFlight());
+		} finally {
+			callers.shutdownNow();
+		}
+	}
+
+	@Test
+	void callKeepsItsSlotUntilTheResponseIsClosed() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(1, 0);
+		ResilienceInterceptor interceptor = new ResilienceInterceptor("Blockfrost",
+				new CircuitBreaker(10, 10, 0.5, 60_000_000_000L, 1), bulkhead);
+
+		ClientHttpResponse response = interceptor.intercept(null, new byte[0],
+				(request, body) -> response(200, new ByteArrayInputStream("[]".getBytes())));
+		assertEquals(1, bulkhead.getInFlight());
+		assertThrows(UpstreamUnavailableException.class, () -> interceptor.intercept(null, new byte[0],
+				(request, body) -> response(200, InputStream.nullInputStream())));
+
+		response.getBody().readAllBytes();
+		response.close();
+		assertEquals(0, bulkhead.getInFlight());
+	}
+
+	@Test
+	void bodyReadFailureCountsAsFailure() throws Exception {
+		Bulkhead bulkhead = new Bulkhead(4, 0);
+		CircuitBreaker breaker = new CircuitBreaker(4, 2, 0.5, 60_000_000_000L, 1);
+		ResilienceInterceptor interceptor = new ResilienceInterceptor("Blockfrost", breaker, bulkhead);
+		InputStream broken = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connection reset");
+			}
+		};
+
+		for (int i = 0; i < 2; i++) {
+			try (ClientHttpResponse response = interceptor.intercept(null, new byte[0],
+					(request, body) -> response(200, broken))) {
+				assertThrows(IOException.class, () -> response.getBody().read());
+			}
+		}
+
+		assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+		assertEquals(0, bulkhead.getInFlight());
+	}
+
+	private static ClientHttpResponse response(int status, InputStream body) {
+		return new ClientHttpResponse() {
+			@Override
+			public HttpStatusCode getStatusCode() {
+				return HttpStatusCode.valueOf(status);
+			}
+
+			@Override
+			public String getStatusText() {
+				return "";
+			}
+
+			@Override
+			public HttpHeaders getHeaders() {
+				return new HttpHeaders();
+			}
+
+			@Override
+			public InputStream getBody() {
+				return body;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+	}
+
+	private static String fetch(RestTemplate rest, String address) {
+		return rest.getForObject("/addresses/{address}/utxos", String.class, address);
+	}
+
+	private static RestTemplate restTemplate(StubBlockfrostServer stub, CircuitBreaker breaker, Bulkhead bulkhead) {
+		RestTemplate rest = new RestTemplate();
+		rest.setUriTemplateHandler(new DefaultUriBuilderFactory(stub.baseUrl()));
+		rest.getInterceptors().add(new ResilienceInterceptor("Blockfrost", breaker, bulkhead));
+		return rest;
+	}
+
+}
@@ -0,0 +1,309 @@
+package com.yankee.mynotesapp.service;
+
+import com.bloxbean.cardano.client.transaction.spec.Transaction;
+import com.bloxbean.cardano.client.transaction.spec.TransactionBody;
+import com.bloxbean.cardano.client.transaction.spec.TransactionInput;
+import com.bloxbean.cardano.client.transaction.spec.TransactionWitnessSet;
+import com.bloxbean.cardano.client.util.HexUtil;
+import com.yankee.mynotesapp.cardano.TxSubmission;
+import com.yankee.mynotesapp.cardano.TxSubmissionStatus;
+import com.yankee.mynotesapp.config.CardanoConfig;
+import com.yankee.mynotesapp.repository.TxSubmissionRepository;
+import com.yankee.mynotesapp.resilience.UpstreamUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TxSubmissionServiceTests {
+
+	private static final long START = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+	private static final long LEASE_MS = 60_000;
+
+	private final Map<String, TxSubmission> rows = new LinkedHashMap<>();
+	private final AtomicLong clock = new AtomicLong(START);
+	private final FakeCardanoService cardano = new FakeCardanoService();
+	private final InlineWorkers workers = new InlineWorkers();
+	private final TxSubmissionService service = new TxSubmissionService(repository(), cardano, workers,
+			3, 2_000, 30_000, LEASE_MS, 50, 180, clock::get);
+
+	@Test
+	void queuedTransactionIsSubmittedThenConfirmed() {
+		String tx = tx(0);
+		TxSubmission submission = service.enqueue(tx);
+
+		assertEquals(TxSubmissionStatus.SUBMITTED, submission.getStatus());
+		assertEquals(List.of(tx), cardano.posted);
+		assertEquals(List.of(submission.getTxHash()), cardano.reserved);
+
+		service.checkConfirmations();
+		assertEquals(TxSubmissionStatus.SUBMITTED, submission.getStatus());
+		assertTrue(cardano.released.isEmpty());
+
+		cardano.onChain = true;
+		service.checkConfirmations();
+		assertEquals(TxSubmissionStatus.CONFIRMED, submission.getStatus());
+		assertEquals(List.of(submission.getTxHash()), cardano.released);
+	}
+
+	@Test
+	void transientFailureBacksOffThenRetries() {
+		cardano.failures.add(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+		TxSubmission submission = service.enqueue(tx(0));
+
+		assertEquals(TxSubmissionStatus.PENDING, submission.getStatus());
+		assertEquals(1, submission.getAttempts());
+		long wait = submission.getNextAttemptAt().toEpochMilli() - clock.get();
+		assertTrue(wait >= 1_000 && wait <= 2_000, "backoff " + wait);
+
+		service.dispatchDue();
+		assertEquals(1, cardano.posted.size());
+
+		clock.addAndGet(wait);
+		service.dispatchDue();
+		assertEquals(TxSubmissionStatus.SUBMITTED, submission.getStatus());
+		assertEquals(2, submission.getAttempts());
+		assertNull(submission.getLastError());
+	}
+
+	@Test
+	void rejectedTransactionFailsAtOnceAndFreesItsInputs() {
+		cardano.failures.add(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+		TxSubmission submission = service.enqueue(tx(0));
+
+		assertEquals(TxSubmissionStatus.FAILED, submission.getStatus());
+		assertEquals(1, submission.getAttempts());
+		assertNotNull(submission.getLastError());
+		assertEquals(List.of(submission.getTxHash()), cardano.released);
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() {
+		for (int i = 0; i < 3; i++) {
+			cardano.failures.add(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+		}
+		TxSubmission submission = service.enqueue(tx(0));
+		for (int i = 0; i < 2; i++) {
+			clock.set(submission.getNextAttemptAt().toEpochMilli());
+			service.dispatchDue();
+		}
+
+		assertEquals(TxSubmissionStatus.FAILED, submission.getStatus());
+		assertEquals(3, submission.getAttempts());
+		assertEquals(3, cardano.posted.size());
+		assertEquals(List.of(submission.getTxHash()), cardano.released);
+	}
+
+	@Test
+	void openCircuitDoesNotUseUpAnAttempt() {
+		cardano.failures.add(new UpstreamUnavailableException("circuit open", 30));
+		TxSubmission submission = service.enqueue(tx(0));
+
+		assertEquals(TxSubmissionStatus.PENDING, submission.getStatus());
+		assertEquals(0, submission.getAttempts());
+		assertEquals(Instant.ofEpochMilli(START).plusSeconds(30), submission.getNextAttemptAt());
+		assertTrue(cardano.released.isEmpty());
+	}
+
+	@Test
+	void claimedRowWaitsForItsLeaseBeforeAnotherWorkerTakesIt() {
+		workers.drop = true;
+		TxSubmission submission = service.enqueue(tx(0));
+		assertEquals(Instant.ofEpochMilli(START + LEASE_MS), submission.getNextAttemptAt());
+
+		workers.drop = false;
+		service.dispatchDue();
+		assertTrue(cardano.posted.isEmpty());
+
+		clock.addAndGet(LEASE_MS);
+		service.dispatchDue();
+		assertEquals(TxSubmissionStatus.SUBMITTED, submission.getStatus());
+		assertEquals(1, cardano.posted.size());
+	}
+
+	@Test
+	void submittingTheSameTransactionAgainReturnsItsRow() {
+		String tx = tx(0);
+		TxSubmission first = service.enqueue(tx);
+		TxSubmission second = service.enqueue(tx.toUpperCase());
+
+		assertSame(first, second);
+		assertEquals(1, cardano.posted.size());
+		assertEquals(1, cardano.reserved.size());
+	}
+
+	@Test
+	void transactionMissingFromChainFailsAfterTheConfirmTimeout() {
+		TxSubmission submission = service.enqueue(tx(0));
+
+		clock.addAndGet(Duration.ofMinutes(181).toMillis());
+		service.checkConfirmations();
+
+		assertEquals(TxSubmissionStatus.FAILED, submission.getStatus());
+		assertEquals(List.of(submission.getTxHash()), cardano.released);
+	}
+
+	@Test
+	void restartReservesInputsOfUnsettledRows() {
+		for (TxSubmissionStatus status : TxSubmissionStatus.values()) {
+			TxSubmission row = new TxSubmission("hash-" + status, tx(status.ordinal()), Instant.ofEpochMilli(START));
+			row.setStatus(status);
+			rows.put(row.getTxHash(), row);
+		}
+
+		service.afterSingletonsInstantiated();
+
+		assertEquals(List.of("hash-PENDING", "hash-SUBMITTED"), cardano.reserved);
+	}
+
+	@Test
+	void backoffGrowsAndIsCapped() {
+		long first = service.backoff(1);
+		long fourth = service.backoff(4);
+		assertTrue(first >= 1_000 && first <= 2_000);
+		assertTrue(fourth >= 8_000 && fourth <= 16_000);
+		assertTrue(service.backoff(30) <= 30_000);
+	}
+
+	// A payment from one fixed input; the index keeps transactions apart
+	private static String tx(int index) {
+		TransactionBody body = TransactionBody.builder()
+				.inputs(List.of(TransactionInput.builder().transactionId("ab".repeat(32)).index(index).build()))
+				.outputs(List.of())
+				.fee(BigInteger.valueOf(170_000))
+				.ttl(1_000)
+				.build();
+		try {
+			return HexUtil.encodeHexString(Transaction.builder()
+					.body(body)
+					.witnessSet(new TransactionWitnessSet())
+					.build()
+					.serialize());
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	// Repository backed by the rows map; only the queries the service uses work
+	private TxSubmissionRepository repository() {
+		Map<String, Function<Object[], Object>> methods = Map.of(
+				"findById", args -> rows.values().stream().filter(r -> r.getTxHash().equals(args[0])).findFirst(),
+				"saveAndFlush", args -> {
+					TxSubmission row = (TxSubmission) args[0];
+					if (rows.putIfAbsent(row.getTxHash(), row) != null) {
+						throw new DataIntegrityViolationException("duplicate " + row.getTxHash());
+					}
+					return row;
+				},
+				"save", args -> {
+					TxSubmission row = (TxSubmission) args[0];
+					rows.put(row.getTxHash(), row);
+					return row;
+				},
+				"findDue", args -> rows.values().stream()
+						.filter(r -> r.getStatus() == args[0] && !r.getNextAttemptAt().isAfter((Instant) args[1]))
+						.sorted(Comparator.comparing(TxSubmission::getNextAttemptAt))
+						.limit(((Pageable) args[2]).getPageSize())
+						.map(TxSubmission::getTxHash)
+						.toList(),
+				"findHashesByStatus", args -> rows.values().stream()
+						.filter(r -> r.getStatus() == args[0])
+						.limit(((Pageable) args[1]).getPageSize())
+						.map(TxSubmission::getTxHash)
+						.toList(),
+				"findByStatusIn", args -> rows.values().stream()
+						.filter(r -> ((Collection<?>) args[0]).contains(r.getStatus()))
+						.toList(),
+				"claim", args -> {
+					TxSubmission row = rows.get((String) args[0]);
+					if (row == null || row.getStatus() != args[1] || row.getNextAttemptAt().isAfter((Instant) args[2])) {
+						return 0;
+					}
+					row.setNextAttemptAt((Instant) args[3]);
+					return 1;
+				});
+		return (TxSubmissionRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { TxSubmissionRepository.class }, (proxy, method, args) -> {
+					Function<Object[], Object> body = methods.get(method.getName());
+					if (body == null) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					return body.apply(args);
+				});
+	}
+
+	// Runs each task on the calling thread, or loses it like a worker that crashed mid-attempt
+	private static final class InlineWorkers extends ThreadPoolExecutor {
+		private boolean drop;
+
+		private InlineWorkers() {
+			super(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			if (!drop) {
+				task.run();
+			}
+		}
+	}
+
+	private static final class FakeCardanoService extends CardanoService {
+		private final Deque<RuntimeException> failures = new ArrayDeque<>();
+		private final List<String> posted = new ArrayList<>();
+		private final List<String> reserved = new ArrayList<>();
+		private final List<String> released = new ArrayList<>();
+		private boolean onChain;
+
+		private FakeCardanoService() {
+			super(new CardanoConfig(), null, null, null, null, Runnable::run, 10, 20, 60);
+		}
+
+		@Override
+		public String postTransaction(String signedTxHex) {
+			posted.add(signedTxHex);
+			RuntimeException failure = failures.poll();
+			if (failure != null) {
+				throw failure;
+			}
+			return null;
+		}
+
+		@Override
+		public boolean isOnChain(String txHash) {
+			return onChain;
+		}
+
+		@Override
+		public void reserveInputs(String txHash, String signedTxHex) {
+			reserved.add(txHash);
+		}
+
+		@Override
+		public void releaseInputs(String txHash, String signedTxHex) {
+			released.add(txHash);
+		}
+	}
+}
@@ -83,7 +83,7 @@ const Dashboard = ({ setIsAuthenticated }) => {
   const [ethTxStatus, setEthTxStatus] = useState(null);
 
   // Cardano
-  const { walletAddress: cardanoAddr, isConnected: isCardanoConnected, connectWallet: connectCardano, disconnectWallet: disconnectCardano, utxos: cardanoUTxOs, txHash: cardanoTx, sendAda: sendAdaTransaction, error: cardanoError } = useCardanoWallet();
+  const { walletAddress: cardanoAddr, isConnected: isCardanoConnected, connectWallet: connectCardano, disconnectWallet: disconnectCardano, utxos: cardanoUTxOs, txHash: cardanoTx, txStatus: cardanoTxStatus, sendAda: sendAdaTransaction, error: cardanoError } = useCardanoWallet();
   const [adaAmount, setAdaAmount] = useState(1);
   const [txStatus, setTxStatus] = useState(null);
 
@@ -151,7 +151,7 @@ const Dashboard = ({ setIsAuthenticated }) => {
     if (!cardanoAddr) return alert("Connect Cardano wallet first!");
     try {
       const hash = await sendAdaTransaction(cardanoAddr, adaAmount);
-      if (hash) setTxStatus({ message: `Cardano TX submitted! Hash: ${hash}`, type: "success", hash });
+      if (hash) setTxStatus({ message: `Cardano TX sent! Hash: ${hash}`, type: "success", hash });
     } catch (err) {
       setTxStatus({ message: `Cardano TX Failed: ${cardanoError || err.message}`, type: "error" });
     }
@@ -218,7 +218,7 @@ const Dashboard = ({ setIsAuthenticated }) => {
           </button>
         </div>
 
-        {cardanoTx && <p className="mt-3 font-mono break-all">TX Hash: {cardanoTx}</p>}
+        {cardanoTx && <p className="mt-3 font-mono break-all">TX Hash: {cardanoTx}{cardanoTxStatus && ` (${cardanoTxStatus})`}</p>}
         {cardanoUTxOs.length > 0 && (
           <pre className="mt-4 p-2 bg-gray-50 dark:bg-gray-800 rounded text-xs overflow-x-auto">{JSON.stringify(cardanoUTxOs, null, 2)}</pre>
         )}
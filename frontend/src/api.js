@@ -96,6 +96,11 @@ export const getCardanoUTxOs = async (address) => {
     return api.get(`/cardano/utxos?address=${address}`);
 };
 
+// UTxOs + balance for several addresses in one call (omit addresses for the user's linked ones)
+export const getCardanoWallet = async (addresses) => {
+    return addresses ? api.post('/cardano/wallet', { addresses }) : api.get('/cardano/wallet');
+};
+
 // ⬅️ CRITICAL FIX: NEW FUNCTION ADDED TO EXPORT LIST
 export const buildUnsignedCardanoTx = async (sender, recipient, amount) => {
     // Backend endpoint is /api/cardano/build-unsigned-tx
@@ -112,4 +117,9 @@ export const submitCardanoTransaction = async (signedTxHex) => {
     return api.post('/cardano/submit-tx', { signedTxHex });
 };
 
+// Submission is queued server-side: status is pending, submitted, failed or confirmed
+export const getCardanoTxStatus = async (txHash) => {
+    return api.get(`/cardano/submit-tx/${txHash}`);
+};
+
 export default api;
\ No newline at end of file
@@ -0,0 +1,71 @@
+// frontend/src/cardanoTx.js
+// Just enough CBOR to put a CIP-30 witness set into the unsigned transaction the
+// backend builds. The body bytes are copied untouched, so the hash the wallet
+// signed stays valid.
+
+const hexToBytes = (hex) => {
+    const bytes = new Uint8Array(hex.length / 2);
+    for (let i = 0; i < bytes.length; i++) {
+        bytes[i] = parseInt(hex.substr(i * 2, 2), 16);
+    }
+    return bytes;
+};
+
+const bytesToHex = (bytes) => Array.from(bytes, (b) => b.toString(16).padStart(2, '0')).join('');
+
+// Reads a CBOR head at pos: { major, value (null if indefinite), next }
+const readHead = (bytes, pos) => {
+    const initial = bytes[pos];
+    if (initial === undefined) throw new Error('Truncated CBOR');
+    const major = initial >> 5;
+    const info = initial & 0x1f;
+    if (info < 24) return { major, value: info, next: pos + 1 };
+    if (info === 31) return { major, value: null, next: pos + 1 };
+    const size = { 24: 1, 25: 2, 26: 4, 27: 8 }[info];
+    if (!size) throw new Error('Malformed CBOR');
+    let value = 0;
+    for (let i = 1; i <= size; i++) value = value * 256 + bytes[pos + i];
+    return { major, value, next: pos + 1 + size };
+};
+
+// Offset just past the CBOR item starting at pos
+const skipItem = (bytes, pos) => {
+    const { major, value, next } = readHead(bytes, pos);
+    const indefinite = value === null;
+    const untilBreak = (p) => {
+        while (bytes[p] !== 0xff) p = skipItem(bytes, p);
+        return p + 1;
+    };
+    switch (major) {
+        case 0: case 1: case 7:
+            return next;
+        case 2: case 3:
+            return indefinite ? untilBreak(next) : next + value;
+        case 4: case 5: {
+            if (indefinite) return untilBreak(next);
+            let p = next;
+            for (let i = 0; i < value * (major === 5 ? 2 : 1); i++) p = skipItem(bytes, p);
+            return p;
+        }
+        default: // 6: tag, followed by one item
+            return skipItem(bytes, next);
+    }
+};
+
+/**
+ * Replaces the (empty) witness set of an unsigned transaction
+ * [body, witnessSet, isValid, auxData] with the one returned by api.signTx.
+ */
+export const assembleSignedTx = (unsignedTxHex, witnessSetHex) => {
+    const tx = hexToBytes(unsignedTxHex);
+    const head = readHead(tx, 0);
+    if (head.major !== 4 || head.value === null || head.value < 2) {
+        throw new Error('Unexpected transaction encoding');
+    }
+    const bodyEnd = skipItem(tx, head.next);
+    const witnessEnd = skipItem(tx, bodyEnd);
+    if (witnessEnd - bodyEnd !== 1 || tx[bodyEnd] !== 0xa0) {
+        throw new Error('Transaction already carries witnesses');
+    }
+    return bytesToHex(tx.subarray(0, bodyEnd)) + witnessSetHex + bytesToHex(tx.subarray(witnessEnd));
+};
@@ -1,6 +1,26 @@
 // frontend/src/useCardanoWallet.jsx
 import { useState, useRef, useCallback } from 'react';
-import { getCardanoUTxOs, submitCardanoTransaction, buildUnsignedCardanoTx } from './api';
+import { getCardanoUTxOs, submitCardanoTransaction, buildUnsignedCardanoTx, getCardanoTxStatus } from './api';
+import { assembleSignedTx } from './cardanoTx';
+
+const STATUS_POLL_MS = 3000;
+const STATUS_POLL_LIMIT = 40;
+
+// Waits until the backend's submission worker has handed the transaction to Blockfrost (or given up)
+const waitForSubmission = async (txHash, onStatus) => {
+    for (let i = 0; i < STATUS_POLL_LIMIT; i++) {
+        const { data } = await getCardanoTxStatus(txHash);
+        onStatus(data.status);
+        if (data.status === 'failed') {
+            throw new Error(data.lastError || 'Transaction submission failed.');
+        }
+        if (data.status !== 'pending') {
+            return data.status;
+        }
+        await new Promise((r) => setTimeout(r, STATUS_POLL_MS));
+    }
+    return 'pending';
+};
 
 const useCardanoWallet = () => {
     const [walletAddress, setWalletAddress] = useState(null);
@@ -8,6 +28,7 @@ const useCardanoWallet = () => {
     const [error, setError] = useState(null);
     const [utxos, setUtxos] = useState([]);
     const [txHash, setTxHash] = useState(null);
+    const [txStatus, setTxStatus] = useState(null);
 
     const cardanoApiRef = useRef(null);
 
@@ -51,39 +72,45 @@ const useCardanoWallet = () => {
         setIsConnected(false);
         setUtxos([]);
         setTxHash(null);
+        setTxStatus(null);
         setError(null);
         cardanoApiRef.current = null;
     }, []);
 
-    // FINAL sendAda: Uses Backend Build, Bypasses Wallet Sign, Submits Mock Hex for Proof
+    // Backend builds the transaction, the wallet signs it, the backend queues it for submission
     const sendAda = useCallback(async (toAddress, amount) => {
         if (!isConnected || !cardanoApiRef.current) {
             setError("Connect Cardano wallet first.");
             return null;
         }
 
+        setError(null);
+        setTxStatus(null);
         try {
-            // 1. Backend builds the unsigned transaction (returns DUMMY_HEX)
+            // 1. Backend selects inputs and builds the unsigned transaction
             const buildResponse = await buildUnsignedCardanoTx(walletAddress, toAddress, amount);
-            const unsignedTxHex = buildResponse.data.unsignedTxHex; 
+            const unsignedTxHex = buildResponse.data.unsignedTxHex;
 
-            // 2. We skip actual signing because the hex is mock data and the wallet fails to parse it.
-            const mockSignedTx = unsignedTxHex; 
-            
-            // 3. Submit the mock signed transaction to the backend
-            const response = await submitCardanoTransaction(mockSignedTx);
-            const hash = response.data.txHash; // Backend returns a mock Tx Hash
+            // 2. CIP-30: the wallet returns only the witness set, which goes into the transaction
+            const witnessSetHex = await cardanoApiRef.current.signTx(unsignedTxHex, false);
+            const signedTxHex = assembleSignedTx(unsignedTxHex, witnessSetHex);
+
+            // 3. Queued server-side (202); the hash is only final once a worker has submitted it
+            const response = await submitCardanoTransaction(signedTxHex);
+            const hash = response.data.txHash;
+            setTxHash(hash);
+            setTxStatus(response.data.status);
+            await waitForSubmission(hash, setTxStatus);
 
             // Update local UTxOs (using the correct walletAddress format)
             const newUtxosResponse = await getCardanoUTxOs(walletAddress);
             setUtxos(newUtxosResponse.data);
 
-            setTxHash(hash);
-            return hash; // THIS IS THE ASSIGNMENT PROOF
+            return hash;
 
         } catch (err) {
             console.error("Cardano TX failed", err);
-            setError(err.response?.data?.message || err.message || "Failed to send ADA.");
+            setError(err.response?.data?.message || err.info || err.message || "Failed to send ADA.");
             return null;
         }
     }, [isConnected, walletAddress]);
@@ -96,6 +123,7 @@ const useCardanoWallet = () => {
         disconnectWallet,
         utxos,
         txHash,
+        txStatus,
         sendAda,
         error
     };